@@ -6,11 +6,15 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.AvailabilityRequest;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -27,13 +31,8 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return get(listQuery("", cursor), userId, listParameters(state, from, size, cursor));
     }
 
 
@@ -41,21 +40,56 @@ public class BookingClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> bookItems(int userId, List<NewBookingRequest> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public ResponseEntity<Object> checkAvailability(AvailabilityRequest request) {
+        return post("/availability", request);
+    }
+
     public ResponseEntity<Object> getBooking(int userId, Integer bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return get(listQuery("/owner", cursor), userId, listParameters(state, from, size, cursor));
+    }
+
+    public ResponseEntity<Object> getBookingCounts(int userId) {
+        return get("/counts", userId);
+    }
+
+    public ResponseEntity<Object> getOwnerBookingCounts(int ownerId) {
+        return get("/owner/counts", ownerId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(int ownerId) {
+        return stream("/owner/export", ownerId);
+    }
+
+    private static String listQuery(String path, String cursor) {
+        String query = path + "?state={state}&from={from}&size={size}";
+        return cursor == null ? query : query + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> listParameters(BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 
     public ResponseEntity<Object> updateBookingState(Integer id, int bookingId, boolean approved) {
         return patch("/" + id + "?approved=" + approved, bookingId);
     }
+
+    public ResponseEntity<Object> updateBookingStates(List<Integer> ids, int ownerId, boolean approved) {
+        return patch("/batch?approved=" + approved, ownerId, ids);
+    }
 }
 
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -15,9 +19,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.AvailabilityRequest;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 
+import java.util.List;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -37,6 +45,19 @@ public class BookingController {
         return bookingClient.bookItem(bookerId, booking);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBookingRequests(@RequestBody @NotEmpty @Size(max = 100) List<@Valid NewBookingRequest> bookings,
+                                                        @RequestHeader(HEADER) Integer bookerId) {
+        log.info("Creating {} bookings for user{}", bookings.size(), bookerId);
+        return bookingClient.bookItems(bookerId, bookings);
+    }
+
+    @PostMapping("/availability")
+    public ResponseEntity<Object> checkAvailability(@RequestBody @Valid AvailabilityRequest request) {
+        log.info("Checking availability of {} items", request.getItemIds().size());
+        return bookingClient.checkAvailability(request);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> processBookingRequest(@PathVariable Integer bookingId,
                                                         @RequestHeader(HEADER) Integer ownerId,
@@ -45,6 +66,14 @@ public class BookingController {
         return bookingClient.updateBookingState(bookingId, ownerId, processable);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> processBookingRequests(@RequestBody @NotEmpty @Size(max = 100) List<@NotNull Integer> bookingIds,
+                                                         @RequestHeader(HEADER) Integer ownerId,
+                                                         @RequestParam("approved") Boolean processable) {
+        log.info("Processing {} bookings of owner{}", bookingIds.size(), ownerId);
+        return bookingClient.updateBookingStates(bookingIds, ownerId, processable);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@PathVariable Integer bookingId,
                                              @RequestHeader(HEADER) Integer userId) {
@@ -56,21 +85,39 @@ public class BookingController {
     public ResponseEntity<Object> findAllByUserId(@RequestHeader(HEADER) Integer userId,
                                                   @RequestParam(value = "status", defaultValue = "ALL") String state,
                                                   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                  @Positive @RequestParam(defaultValue = "10") Integer size) {
+                                                  @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                  @RequestParam(required = false) String cursor) {
         log.info("Looking for booking made by user{}", userId);
         BookingState bookingStatus = BookingState.from(state).orElseThrow(() -> new IllegalArgumentException("Incorrect booking status"));
-        return bookingClient.getBookings(userId, bookingStatus, from, size);
+        return bookingClient.getBookings(userId, bookingStatus, from, size, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> findAllByOwnerId(@RequestHeader(HEADER) Integer ownerId,
                                                    @RequestParam(value = "status", defaultValue = "ALL") String state,
                                                    @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(defaultValue = "10") Integer size) {
+                                                   @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                   @RequestParam(required = false) String cursor) {
         log.info("Looking for booking items owned by user{}", ownerId);
         BookingState bookingStatus = BookingState.from(state).orElseThrow(() -> new IllegalArgumentException("Incorrect booking status"));
-        return bookingClient.getOwnerBookings(ownerId, bookingStatus, from, size);
+        return bookingClient.getOwnerBookings(ownerId, bookingStatus, from, size, cursor);
     }
 
+    @GetMapping("/counts")
+    public ResponseEntity<Object> countByUserId(@RequestHeader(HEADER) Integer userId) {
+        log.info("Counting bookings made by user{}", userId);
+        return bookingClient.getBookingCounts(userId);
+    }
 
+    @GetMapping("/owner/counts")
+    public ResponseEntity<Object> countByOwnerId(@RequestHeader(HEADER) Integer ownerId) {
+        log.info("Counting bookings of items owned by user{}", ownerId);
+        return bookingClient.getOwnerBookingCounts(ownerId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwnerId(@RequestHeader(HEADER) Integer ownerId) {
+        log.info("Exporting bookings of items owned by user{}", ownerId);
+        return bookingClient.exportOwnerBookings(ownerId);
+    }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AvailabilityRequest {
+
+    @NotNull
+    LocalDateTime start;
+    @NotNull
+    LocalDateTime end;
+    @NotEmpty
+    @Size(max = 500)
+    List<@NotNull Integer> itemIds;
+}
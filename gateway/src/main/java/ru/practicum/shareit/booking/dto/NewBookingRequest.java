@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotNull;
@@ -12,6 +14,7 @@ import java.time.LocalDateTime;
 @Data
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class NewBookingRequest {
+    public static final int MAX_DURATION_DAYS = 92;
 
     @FutureOrPresent
     LocalDateTime start;
@@ -19,4 +22,15 @@ public class NewBookingRequest {
     LocalDateTime end;
     @NotNull
     Integer itemId;
+
+    /**
+     * Bookings are limited to {@value #MAX_DURATION_DAYS} days, the server's
+     * {@code shareit.booking.max-duration-days}. Queries for running bookings rely on it to skip
+     * booking partitions that started earlier.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "Booking cannot be longer than " + MAX_DURATION_DAYS + " days")
+    public boolean isWithinMaxDuration() {
+        return start == null || end == null || !start.plusDays(MAX_DURATION_DAYS).isBefore(end);
+    }
 }
@@ -12,6 +12,7 @@ import ru.practicum.shareit.item.dto.NewCommentRequest;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -48,13 +49,31 @@ public class ItemClient extends BaseClient {
         return get("", ownerId);
     }
 
-    public ResponseEntity<Object> search(String text, Integer from, Integer size) {
+    public ResponseEntity<Object> getAvailability(int itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public ResponseEntity<Object> search(String text, Integer from, Integer size, boolean fuzzy, boolean facets) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
+                "size", size,
+                "fuzzy", fuzzy,
+                "facets", facets
+        );
+        return get("/search?text={text}&from={from}&size={size}&fuzzy={fuzzy}&facets={facets}", null, parameters);
+    }
+
+    public ResponseEntity<Object> suggest(String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> delete(int itemId) {
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.item;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,6 +21,8 @@ import ru.practicum.shareit.item.dto.NewCommentRequest;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.time.LocalDateTime;
+
 
 @RestController
 @RequestMapping("/items")
@@ -57,6 +62,14 @@ public class ItemController {
         return client.get(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Integer itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Getting free slots of item id={} between {} and {}", itemId, from, to);
+        return client.getAvailability(itemId, from, to);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getUserItems(@RequestHeader(HEADER) Integer ownerId) {
         log.info("Getting items of user id={}", ownerId);
@@ -66,9 +79,18 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> search(@RequestParam(value = "text") String text,
                                          @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size) {
+                                         @RequestParam(defaultValue = "10") int size,
+                                         @RequestParam(defaultValue = "false") boolean fuzzy,
+                                         @RequestParam(defaultValue = "false") boolean facets) {
         log.info("Searching for items with {}", text);
-        return client.search(text, from, size);
+        return client.search(text, from, size, fuzzy, facets);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam String prefix,
+                                          @Positive @Max(50) @RequestParam(defaultValue = "10") Integer size) {
+        log.debug("Suggesting item names for {}", prefix);
+        return client.suggest(prefix, size);
     }
 
     @DeleteMapping("/{itemId}")
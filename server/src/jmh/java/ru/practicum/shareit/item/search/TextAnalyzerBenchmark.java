@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link TextAnalyzer} on a short query and on an item description, for each
+ * filter chain. Run with {@code mvn -Pbenchmark test-compile exec:java} from the server module.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextAnalyzerBenchmark {
+    private static final String QUERY = "Мощная дрель with batteries";
+    private static final String DESCRIPTION = "Ударная дрель с двумя аккумуляторами и кейсом для хранения. " +
+            "Cordless hammer drill, comes with two batteries, a charger and a set of bits for concrete and wood.";
+
+    /**
+     * Filter keys separated by spaces, as JMH splits parameter values on commas.
+     */
+    @Param({"", "normalize", "normalize stop-words stem"})
+    public String filters;
+
+    private TextAnalyzer analyzer;
+
+    @Setup
+    public void setUp() {
+        analyzer = new TextAnalyzer(filters.isEmpty() ? List.of() : List.of(filters.split(" ")));
+    }
+
+    @Benchmark
+    public List<String> query() {
+        return analyzer.analyze(QUERY);
+    }
+
+    @Benchmark
+    public List<String> description() {
+        return analyzer.analyze(DESCRIPTION);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Integer> {
+
+    @Modifying
+    @Query("INSERT INTO ArchivedBooking (id, start, end, item, status, booker) " +
+            "SELECT b.id, b.start, b.end, b.item, b.status, b.booker FROM Booking b WHERE b.id IN :bookingIds")
+    int copyFromBookings(@Param("bookingIds") Collection<Integer> bookingIds);
+
+    @Query("SELECT b FROM ArchivedBooking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId " +
+            "ORDER BY b.start DESC, b.id DESC LIMIT :limit OFFSET :offset")
+    List<ArchivedBooking> findPageByBookerId(@Param("bookerId") Integer bookerId,
+                                             @Param("offset") int offset,
+                                             @Param("limit") int limit);
+
+    @Query("SELECT b FROM ArchivedBooking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.item.owner.id = :ownerId " +
+            "ORDER BY b.start DESC, b.id DESC LIMIT :limit OFFSET :offset")
+    List<ArchivedBooking> findPageByItemOwnerId(@Param("ownerId") Integer ownerId,
+                                                @Param("offset") int offset,
+                                                @Param("limit") int limit);
+
+    @Query("SELECT b FROM ArchivedBooking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) ORDER BY b.start DESC, b.id DESC LIMIT :limit")
+    List<ArchivedBooking> findPageByBookerIdBefore(@Param("bookerId") Integer bookerId,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("id") Integer id,
+                                                   @Param("limit") int limit);
+
+    @Query("SELECT b FROM ArchivedBooking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.item.owner.id = :ownerId " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) ORDER BY b.start DESC, b.id DESC LIMIT :limit")
+    List<ArchivedBooking> findPageByItemOwnerIdBefore(@Param("ownerId") Integer ownerId,
+                                                      @Param("start") LocalDateTime start,
+                                                      @Param("id") Integer id,
+                                                      @Param("limit") int limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingPeriod(b.start, b.end) " +
+            "FROM ArchivedBooking b WHERE b.item.id = :itemId AND b.status NOT IN ('REJECTED', 'EXPIRED') " +
+            "ORDER BY b.end DESC LIMIT 1")
+    Optional<BookingPeriod> findLastBookingByItemId(@Param("itemId") Integer itemId);
+
+    boolean existsByBookerIdAndItemIdAndStatus(Integer bookerId, Integer itemId, Status status);
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves bookings that ended before the archive horizon from {@code bookings} to {@code bookings_archive},
+ * one chunk per transaction, so the table new bookings are written to only holds recent data.
+ */
+@Component
+@Slf4j
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingCounters counters;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    private final int chunkSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           BookingCounters counters,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.booking.archive.horizon-days:365}") int horizonDays,
+                           @Value("${shareit.booking.archive.chunk-size:500}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.counters = counters;
+        this.transactionTemplate = transactionTemplate;
+        this.horizonDays = horizonDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.delay:3600000}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(horizonDays);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            total += moved;
+        } while (moved == chunkSize);
+        if (total > 0) {
+            log.info("Archived {} bookings that ended before {}", total, cutoff);
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Integer> ids = bookingRepository.findIdsByEndBefore(cutoff, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids);
+        counters.onArchived(ids);
+        bookingRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Per-item calendar of periods taken by WAITING and APPROVED bookings that have not ended yet.
+ * Overlapping and adjacent bookings are merged, so the free slots of any window are the gaps
+ * between consecutive busy periods. Calendars are cached by item id and evicted by
+ * {@link BookingServiceImpl} whenever the set of blocking bookings of an item changes.
+ *
+ * <p>The cache holds at most {@code shareit.booking.calendar.cache.max-entries} calendars, dropping
+ * the least recently used one first, and each for {@code shareit.booking.calendar.cache.ttl-seconds}.
+ * Only bookings starting within {@code shareit.booking.max-duration-days} before now are read, as no
+ * earlier one can still be running.
+ */
+@Component
+public class BookingCalendar {
+    private static final List<Status> BLOCKING = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final int maxDurationDays;
+    private final Clock clock;
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long invalidations;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+
+    @Autowired
+    public BookingCalendar(BookingRepository bookingRepository,
+                           @Value("${shareit.booking.calendar.cache.max-entries:10000}") int maxEntries,
+                           @Value("${shareit.booking.calendar.cache.ttl-seconds:300}") long ttlSeconds,
+                           @Value("${shareit.booking.max-duration-days:92}") int maxDurationDays,
+                           MeterRegistry registry) {
+        this(bookingRepository, maxEntries, ttlSeconds, maxDurationDays, Clock.systemDefaultZone(), registry);
+    }
+
+    BookingCalendar(BookingRepository bookingRepository, int maxEntries, long ttlSeconds, int maxDurationDays,
+                    Clock clock, MeterRegistry registry) {
+        this.bookingRepository = bookingRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxDurationDays = maxDurationDays;
+        this.clock = clock;
+        this.hits = Counter.builder("booking.calendar.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("booking.calendar.cache.requests").tag("result", "miss").register(registry);
+        this.sizeEvictions = Counter.builder("booking.calendar.cache.evictions").tag("cause", "size").register(registry);
+        this.expirations = Counter.builder("booking.calendar.cache.evictions").tag("cause", "expired").register(registry);
+        Gauge.builder("booking.calendar.cache.size", this, BookingCalendar::size).register(registry);
+    }
+
+    /**
+     * Returns the item's cached calendar or loads and caches it. A calendar loaded while an item was
+     * being evicted is returned but not cached, since it may predate that write.
+     */
+    public List<BookingPeriod> busyPeriods(Integer itemId) {
+        long generation;
+        synchronized (this) {
+            Entry entry = entries.get(itemId);
+            if (entry != null && entry.expiresAt > clock.millis()) {
+                hits.increment();
+                return entry.periods;
+            }
+            if (entry != null) {
+                expirations.increment();
+                entries.remove(itemId);
+            }
+            misses.increment();
+            generation = invalidations;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<BookingPeriod> periods = merge(bookingRepository.findPeriodsByItemId(itemId, BLOCKING,
+                now.minusDays(maxDurationDays), now));
+        synchronized (this) {
+            if (generation == invalidations && maxEntries > 0) {
+                entries.put(itemId, new Entry(periods, clock.millis() + ttlMillis));
+                Iterator<Integer> eldest = entries.keySet().iterator();
+                while (entries.size() > maxEntries) {
+                    eldest.next();
+                    eldest.remove();
+                    sizeEvictions.increment();
+                }
+            }
+        }
+        return periods;
+    }
+
+    /**
+     * Drops the item's calendar now and again once the current transaction completes, so neither
+     * the writing transaction nor a concurrent reader keeps the state from before the change.
+     */
+    public void evictAfterCompletion(Integer itemId) {
+        evict(itemId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(itemId);
+            }
+        });
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void evict(Integer itemId) {
+        invalidations++;
+        entries.remove(itemId);
+    }
+
+    /**
+     * Gaps between the busy periods inside {@code [from, to)}.
+     */
+    public static List<BookingPeriod> freeSlots(List<BookingPeriod> busy, LocalDateTime from, LocalDateTime to) {
+        List<BookingPeriod> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingPeriod period : busy) {
+            if (!period.getStart().isBefore(to)) {
+                break;
+            }
+            if (!period.getEnd().isAfter(cursor)) {
+                continue;
+            }
+            if (period.getStart().isAfter(cursor)) {
+                free.add(new BookingPeriod(cursor, period.getStart()));
+            }
+            cursor = period.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new BookingPeriod(cursor, to));
+        }
+        return free;
+    }
+
+    /**
+     * Merges periods sorted by start into disjoint, non-adjacent periods.
+     */
+    static List<BookingPeriod> merge(List<BookingPeriod> sorted) {
+        List<BookingPeriod> merged = new ArrayList<>();
+        BookingPeriod current = null;
+        for (BookingPeriod period : sorted) {
+            if (current != null && !period.getStart().isAfter(current.getEnd())) {
+                if (period.getEnd().isAfter(current.getEnd())) {
+                    current = new BookingPeriod(current.getStart(), period.getEnd());
+                }
+                continue;
+            }
+            if (current != null) {
+                merged.add(current);
+            }
+            current = period;
+        }
+        if (current != null) {
+            merged.add(current);
+        }
+        return List.copyOf(merged);
+    }
+
+    private record Entry(List<BookingPeriod> periods, long expiresAt) {
+    }
+}
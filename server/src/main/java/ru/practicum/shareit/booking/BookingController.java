@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,10 +13,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.AvailabilityRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSlice;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdate;
+import ru.practicum.shareit.booking.dto.ItemAvailability;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @RestController
@@ -23,15 +32,25 @@ import java.util.List;
 @Slf4j
 public class BookingController {
     private static final String HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
+    private final ItemBookingMailboxes mailboxes;
 
     @PostMapping
-    public BookingDto createBookingRequest(@RequestBody NewBookingRequest booking,
-                                           @RequestHeader(HEADER) Integer bookerId) {
+    public CompletableFuture<BookingDto> createBookingRequest(@RequestBody NewBookingRequest booking,
+                                                              @RequestHeader(HEADER) Integer bookerId) {
         log.info("Creating new booking itemId {}", booking.getItemId());
         log.info("Creating new booking item start{}", booking.getStart());
         log.info("Creating new booking item start{}", booking.getEnd());
-        return bookingService.createBookingRequest(bookerId, booking);
+        return mailboxes.createBookingRequest(bookerId, booking);
+    }
+
+    @PostMapping("/batch")
+    public List<BookingDto> createBookingRequests(@RequestBody List<NewBookingRequest> bookings,
+                                                  @RequestHeader(HEADER) Integer bookerId) {
+        log.info("Creating {} bookings for user{}", bookings.size(), bookerId);
+        return bookingService.createBookingRequests(bookerId, bookings);
     }
 
     @PatchMapping("/{bookingId}")
@@ -42,6 +61,20 @@ public class BookingController {
         return bookingService.updateBookingStatus(bookingId, ownerId, processable);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingStatusUpdate> processBookingRequests(@RequestBody List<Integer> bookingIds,
+                                                            @RequestHeader(HEADER) Integer ownerId,
+                                                            @RequestParam("approved") Boolean processable) {
+        log.info("Processing {} bookings of owner{}", bookingIds.size(), ownerId);
+        return bookingService.updateBookingStatuses(bookingIds, ownerId, processable);
+    }
+
+    @PostMapping("/availability")
+    public List<ItemAvailability> checkAvailability(@RequestBody AvailabilityRequest request) {
+        log.info("Checking availability of {} items", request.getItemIds().size());
+        return bookingService.checkAvailability(request);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto findById(@PathVariable Integer bookingId,
                                @RequestHeader(HEADER) Integer userId) {
@@ -50,17 +83,57 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> findAllByUserId(@RequestHeader(HEADER) Integer userId,
-                                            @RequestParam(value = "status", defaultValue = "ALL") String state) {
+    public ResponseEntity<List<BookingDto>> findAllByUserId(@RequestHeader(HEADER) Integer userId,
+                                                            @RequestParam(value = "state", defaultValue = "ALL") String state,
+                                                            @RequestParam(defaultValue = "0") int from,
+                                                            @RequestParam(defaultValue = "10") int size,
+                                                            @RequestParam(required = false) String cursor) {
         log.info("Looking for booking made by user{}", userId);
-        return bookingService.findAllByUserId(userId, state);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllByUserId(userId, state, from, size));
+        }
+        return withNextCursor(bookingService.scrollAllByUserId(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findAllByOwnerId(@RequestHeader(HEADER) Integer ownerId,
-                                             @RequestParam(value = "status", defaultValue = "ALL") String state) {
+    public ResponseEntity<List<BookingDto>> findAllByOwnerId(@RequestHeader(HEADER) Integer ownerId,
+                                                             @RequestParam(value = "state", defaultValue = "ALL") String state,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             @RequestParam(required = false) String cursor) {
         log.info("Looking for booking items owned by user{}", ownerId);
-        return bookingService.findAllByOwnerId(ownerId, state);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllByOwnerId(ownerId, state, from, size));
+        }
+        return withNextCursor(bookingService.scrollAllByOwnerId(ownerId, state, cursor, size));
+    }
+
+    @GetMapping("/counts")
+    public BookingStateCounts countByUserId(@RequestHeader(HEADER) Integer userId) {
+        log.info("Counting bookings made by user{}", userId);
+        return bookingService.countByUserId(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public BookingStateCounts countByOwnerId(@RequestHeader(HEADER) Integer ownerId) {
+        log.info("Counting bookings of items owned by user{}", ownerId);
+        return bookingService.countByOwnerId(ownerId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwnerId(@RequestHeader(HEADER) Integer ownerId) {
+        log.info("Exporting bookings of items owned by user{}", ownerId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExporter.exportByOwnerId(ownerId));
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(BookingSlice slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getBookings());
     }
 
 
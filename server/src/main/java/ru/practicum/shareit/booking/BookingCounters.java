@@ -0,0 +1,256 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-user booking counts by state, for bookers and for item owners, kept in {@code booking_counters}.
+ *
+ * <p>WAITING and REJECTED follow status changes made by {@link BookingServiceImpl}. FUTURE, CURRENT
+ * and PAST depend on time only: a new booking is always FUTURE and {@link #reconcile()} moves
+ * bookings whose start or end passed since the previous run. The moment of the last run is kept in
+ * {@code booking_counters_clock} and trails the clock by a configurable lag, so bookings committed
+ * shortly after their start are not missed. Counters are rebuilt from the bookings on startup.
+ */
+@Component
+@Slf4j
+public class BookingCounters {
+    static final String BOOKER = "BOOKER";
+    static final String OWNER = "OWNER";
+    private static final List<String> ROLES = List.of(BOOKER, OWNER);
+    private static final List<State> COUNTED = List.of(State.WAITING, State.REJECTED, State.FUTURE, State.CURRENT, State.PAST);
+    private static final String TIME_STATE = "CASE WHEN b.start_from > ? THEN 'FUTURE' " +
+            "WHEN b.end_to > ? THEN 'CURRENT' ELSE 'PAST' END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int lagSeconds;
+    private final int maxDurationDays;
+
+    public BookingCounters(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.booking.counters.lag-seconds:60}") int lagSeconds,
+                           @Value("${shareit.booking.max-duration-days:92}") int maxDurationDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.lagSeconds = lagSeconds;
+        this.maxDurationDays = maxDurationDays;
+    }
+
+    /**
+     * Creates zeroed counters for a new user, so later changes are plain updates of existing rows.
+     */
+    public void initialize(Integer userId) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String role : ROLES) {
+            for (State state : COUNTED) {
+                rows.add(new Object[]{userId, role, state.name()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO booking_counters (user_id, role, state, total) VALUES (?, ?, ?, 0)", rows);
+    }
+
+    public void remove(Integer userId) {
+        jdbcTemplate.update("DELETE FROM booking_counters WHERE user_id = ?", userId);
+    }
+
+    public BookingStateCounts get(Integer userId, String role) {
+        Map<String, Long> counts = new TreeMap<>();
+        jdbcTemplate.query("SELECT state, total FROM booking_counters WHERE user_id = ? AND role = ?",
+                rs -> {
+                    counts.put(rs.getString("state"), rs.getLong("total"));
+                }, userId, role);
+        long future = counts.getOrDefault(State.FUTURE.name(), 0L);
+        long current = counts.getOrDefault(State.CURRENT.name(), 0L);
+        long past = counts.getOrDefault(State.PAST.name(), 0L);
+        return BookingStateCounts.builder()
+                .all(future + current + past)
+                .future(future)
+                .current(current)
+                .past(past)
+                .waiting(counts.getOrDefault(State.WAITING.name(), 0L))
+                .rejected(counts.getOrDefault(State.REJECTED.name(), 0L))
+                .build();
+    }
+
+    public void onCreated(Booking booking) {
+        Deltas deltas = new Deltas();
+        Integer bookerId = booking.getBooker().getId();
+        Integer ownerId = booking.getItem().getOwner().getId();
+        deltas.add(bookerId, ownerId, State.FUTURE.name(), 1);
+        deltas.add(bookerId, ownerId, State.WAITING.name(), 1);
+        apply(deltas);
+    }
+
+    public void onStatusChanged(Booking booking, Status previous, Status current) {
+        onStatusChanged(List.of(booking), List.of(previous), current);
+    }
+
+    /**
+     * Moves the bookings out of their previous statuses, {@code previous.get(i)} belonging to
+     * {@code bookings.get(i)}, into {@code current}.
+     */
+    public void onStatusChanged(List<Booking> bookings, List<Status> previous, Status current) {
+        Deltas deltas = new Deltas();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            Integer bookerId = booking.getBooker().getId();
+            Integer ownerId = booking.getItem().getOwner().getId();
+            if (isCounted(previous.get(i))) {
+                deltas.add(bookerId, ownerId, previous.get(i).name(), -1);
+            }
+            if (isCounted(current)) {
+                deltas.add(bookerId, ownerId, current.name(), 1);
+            }
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Takes bookings about to be archived out of the WAITING and REJECTED counts, as those
+     * listings only cover the bookings table. Archived bookings stay in PAST.
+     */
+    public void onArchived(Collection<Integer> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", bookingIds.stream().map(id -> "?").toList());
+        Deltas deltas = new Deltas();
+        jdbcTemplate.query("SELECT b.booker_id, i.user_id AS owner_id, b.status, COUNT(*) AS moved " +
+                        "FROM bookings b JOIN items i ON i.id = b.item_id " +
+                        "WHERE b.status IN ('WAITING', 'REJECTED') AND b.id IN (" + placeholders + ") " +
+                        "GROUP BY b.booker_id, i.user_id, b.status",
+                rs -> {
+                    deltas.add(rs.getInt("booker_id"), rs.getInt("owner_id"), rs.getString("status"), -rs.getLong("moved"));
+                }, bookingIds.toArray());
+        apply(deltas);
+    }
+
+    /**
+     * Moves bookings between FUTURE, CURRENT and PAST for the time passed since the previous run.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.counters.reconcile-delay:60000}")
+    public void reconcile() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Timestamp> clock = jdbcTemplate.queryForList(
+                    "SELECT reconciled_at FROM booking_counters_clock WHERE id = 1 FOR UPDATE", Timestamp.class);
+            if (clock.isEmpty()) {
+                return;
+            }
+            Timestamp from = clock.get(0);
+            Timestamp to = Timestamp.valueOf(LocalDateTime.now().minusSeconds(lagSeconds));
+            if (!to.after(from)) {
+                return;
+            }
+            Timestamp earliestStart = Timestamp.valueOf(from.toLocalDateTime().minusDays(maxDurationDays));
+            Deltas deltas = new Deltas();
+            jdbcTemplate.query("SELECT booker_id, owner_id, from_state, to_state, COUNT(*) AS moved FROM (" +
+                            "SELECT b.booker_id, i.user_id AS owner_id, " +
+                            TIME_STATE + " AS from_state, " + TIME_STATE + " AS to_state " +
+                            "FROM bookings b JOIN items i ON i.id = b.item_id " +
+                            "WHERE b.start_from > ? AND ((b.start_from > ? AND b.start_from <= ?) " +
+                            "OR (b.end_to > ? AND b.end_to <= ?))) t " +
+                            "GROUP BY booker_id, owner_id, from_state, to_state",
+                    rs -> {
+                        int bookerId = rs.getInt("booker_id");
+                        int ownerId = rs.getInt("owner_id");
+                        long moved = rs.getLong("moved");
+                        deltas.add(bookerId, ownerId, rs.getString("from_state"), -moved);
+                        deltas.add(bookerId, ownerId, rs.getString("to_state"), moved);
+                    }, from, from, to, to, earliestStart, from, to, from, to);
+            apply(deltas);
+            jdbcTemplate.update("UPDATE booking_counters_clock SET reconciled_at = ? WHERE id = 1", to);
+        });
+    }
+
+    /**
+     * Recomputes all counters from the bookings and the archive.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp at = Timestamp.valueOf(LocalDateTime.now().minusSeconds(lagSeconds));
+            jdbcTemplate.update("DELETE FROM booking_counters_clock");
+            jdbcTemplate.update("DELETE FROM booking_counters");
+            for (String role : ROLES) {
+                for (State state : COUNTED) {
+                    jdbcTemplate.update("INSERT INTO booking_counters (user_id, role, state, total) " +
+                            "SELECT id, ?, ?, 0 FROM users", role, state.name());
+                }
+            }
+            Deltas deltas = new Deltas();
+            jdbcTemplate.query("SELECT booker_id, owner_id, state, COUNT(*) AS counted FROM (" +
+                            "SELECT b.booker_id, i.user_id AS owner_id, " + TIME_STATE + " AS state " +
+                            "FROM bookings b JOIN items i ON i.id = b.item_id) t " +
+                            "GROUP BY booker_id, owner_id, state",
+                    rs -> {
+                        deltas.add(rs.getInt("booker_id"), rs.getInt("owner_id"), rs.getString("state"), rs.getLong("counted"));
+                    }, at, at);
+            jdbcTemplate.query("SELECT b.booker_id, i.user_id AS owner_id, b.status, COUNT(*) AS counted " +
+                            "FROM bookings b JOIN items i ON i.id = b.item_id " +
+                            "WHERE b.status IN ('WAITING', 'REJECTED') GROUP BY b.booker_id, i.user_id, b.status",
+                    rs -> {
+                        deltas.add(rs.getInt("booker_id"), rs.getInt("owner_id"), rs.getString("status"), rs.getLong("counted"));
+                    });
+            jdbcTemplate.query("SELECT a.booker_id, i.user_id AS owner_id, COUNT(*) AS counted " +
+                            "FROM bookings_archive a JOIN items i ON i.id = a.item_id GROUP BY a.booker_id, i.user_id",
+                    rs -> {
+                        deltas.add(rs.getInt("booker_id"), rs.getInt("owner_id"), State.PAST.name(), rs.getLong("counted"));
+                    });
+            apply(deltas);
+            jdbcTemplate.update("INSERT INTO booking_counters_clock (id, reconciled_at) VALUES (1, ?)", at);
+        });
+        log.info("Rebuilt booking counters");
+    }
+
+    private static boolean isCounted(Status status) {
+        return status == Status.WAITING || status == Status.REJECTED;
+    }
+
+    /**
+     * Updates rows in a fixed order, so concurrent transactions touching the same counters
+     * cannot deadlock.
+     */
+    private void apply(Deltas deltas) {
+        List<Object[]> rows = new ArrayList<>();
+        deltas.values.forEach((key, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[]{delta, key.userId(), key.role(), key.state()});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE booking_counters SET total = total + ? " +
+                    "WHERE user_id = ? AND role = ? AND state = ?", rows);
+        }
+    }
+
+    private record CounterKey(int userId, String role, String state) {
+    }
+
+    private static final class Deltas {
+        private final Map<CounterKey, Long> values = new TreeMap<>(Comparator.comparingInt(CounterKey::userId)
+                .thenComparing(CounterKey::role)
+                .thenComparing(CounterKey::state));
+
+        void add(int bookerId, int ownerId, String state, long delta) {
+            values.merge(new CounterKey(bookerId, BOOKER, state), delta, Long::sum);
+            values.merge(new CounterKey(ownerId, OWNER, state), delta, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursor over booking lists ordered by {@code (start, id)} descending.
+ * The token is the url-safe Base64 of the last returned booking's start and id. Bookings are created
+ * with their start cut to microseconds, the precision of the {@code start_from} column, so the start
+ * held in memory is exactly the stored one.
+ *
+ * <p>PAST and ALL lists go on into {@code bookings_archive} once the hot table is exhausted. Their
+ * cursors are then marked as archive cursors, and one without a start and id points at the newest
+ * archived booking.
+ *
+ * @param inArchive whether the position is in the archive rather than the hot table
+ * @param start     start of the last returned booking, or {@code null} at the beginning of the list
+ * @param id        id of the last returned booking, or {@code null} at the beginning of the list
+ */
+record BookingCursor(boolean inArchive, LocalDateTime start, Integer id) {
+    private static final char SEPARATOR = '|';
+    private static final String ARCHIVE = "archive" + SEPARATOR;
+
+    static final BookingCursor ARCHIVE_START = new BookingCursor(true, null, null);
+
+    static BookingCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new BookingCursor(false, null, null);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            boolean inArchive = raw.startsWith(ARCHIVE);
+            if (inArchive) {
+                raw = raw.substring(ARCHIVE.length());
+                if (raw.isEmpty()) {
+                    return ARCHIVE_START;
+                }
+            }
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new BookingCursor(inArchive, LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Malformed booking cursor " + cursor);
+        }
+    }
+
+    /**
+     * The position in the hot table to continue from.
+     */
+    KeysetScrollPosition position() {
+        if (start == null) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("start", start);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+
+    String encode() {
+        String raw = (inArchive ? ARCHIVE : "") + (start == null ? "" : start.toString() + SEPARATOR + id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String next(Window<Booking> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        Booking last = window.getContent().getLast();
+        return new BookingCursor(false, last.getStart(), last.getId()).encode();
+    }
+
+    static String next(ArchivedBooking last) {
+        return new BookingCursor(true, last.getStart(), last.getId()).encode();
+    }
+}
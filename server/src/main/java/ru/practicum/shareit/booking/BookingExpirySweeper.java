@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Expires WAITING bookings whose start has passed, as reported by {@link BookingExpiryWheel}.
+ * Due bookings are updated in batches, one transaction per batch. A failed batch is put back
+ * into the wheel and retried on the next run.
+ */
+@Component
+@Slf4j
+public class BookingExpirySweeper {
+    private final BookingExpiryWheel wheel;
+    private final BookingService bookingService;
+    private final Counter expired;
+    private final int batchSize;
+
+    public BookingExpirySweeper(BookingExpiryWheel wheel,
+                                BookingService bookingService,
+                                MeterRegistry registry,
+                                @Value("${shareit.booking.expiry.batch-size:500}") int batchSize) {
+        this.wheel = wheel;
+        this.bookingService = bookingService;
+        this.expired = Counter.builder("booking.expiry.expired").register(registry);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.tick-millis:1000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int[] due = wheel.pollDue(now);
+        for (int from = 0; from < due.length; from += batchSize) {
+            List<Integer> batch = Arrays.stream(due, from, Math.min(from + batchSize, due.length)).boxed().toList();
+            try {
+                int count = bookingService.expireBookings(batch);
+                expired.increment(count);
+                if (count > 0) {
+                    log.info("Expired {} waiting bookings", count);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to expire {} bookings, retrying on the next run", batch.size(), e);
+                batch.forEach(id -> wheel.schedule(id, now));
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Pending expiry timers of WAITING bookings, one per booking, due at the booking's start.
+ *
+ * <p>Timers live in a hierarchical timing wheel: adding one is a constant-time append to a slot,
+ * and advancing the clock only touches the slots it passes. Timers are never cancelled, a booking
+ * approved or rejected before its start is skipped when it comes due. The wheel is filled from the
+ * bookings table on startup and drained by {@link BookingExpirySweeper}.
+ */
+@Component
+@Slf4j
+public class BookingExpiryWheel {
+    private final JdbcTemplate jdbcTemplate;
+    private final Wheel wheel;
+
+    public BookingExpiryWheel(JdbcTemplate jdbcTemplate,
+                              MeterRegistry registry,
+                              @Value("${shareit.booking.expiry.tick-millis:1000}") long tickMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.wheel = new Wheel(tickMillis, toMillis(LocalDateTime.now()));
+        Gauge.builder("booking.expiry.pending", wheel, Wheel::size).register(registry);
+    }
+
+    /**
+     * Adds the timer of a new booking once the current transaction commits, so a rolled back
+     * booking never comes due.
+     */
+    public void schedule(Booking booking) {
+        int bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedule(bookingId, start);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedule(bookingId, start);
+            }
+        });
+    }
+
+    void schedule(int bookingId, LocalDateTime start) {
+        synchronized (wheel) {
+            wheel.add(bookingId, toMillis(start));
+        }
+    }
+
+    /**
+     * Advances the wheel to {@code now} and removes the timers that came due.
+     */
+    int[] pollDue(LocalDateTime now) {
+        synchronized (wheel) {
+            return wheel.advance(toMillis(now));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int[] loaded = new int[1];
+        jdbcTemplate.query("SELECT id, start_from FROM bookings WHERE status = 'WAITING'", rs -> {
+            schedule(rs.getInt("id"), rs.getTimestamp("start_from").toLocalDateTime());
+            loaded[0]++;
+        });
+        log.info("Scheduled expiry of {} waiting bookings", loaded[0]);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Four levels of 64 slots. A timer due {@code delta} ticks ahead goes to the lowest level whose
+     * span exceeds {@code delta}, in the slot that level's cursor reaches at the due tick. When a
+     * lower level wraps, the next slot of the level above is moved down. Timers beyond the top
+     * level's span are parked in its farthest slot and re-added when it is moved down. Not
+     * thread-safe, callers synchronize on the instance.
+     */
+    static final class Wheel {
+        private static final int LEVELS = 4;
+        private static final int SLOT_BITS = 6;
+        private static final int SLOTS = 1 << SLOT_BITS;
+        private static final int MASK = SLOTS - 1;
+        private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+        private final long tickMillis;
+        private final Slot[][] levels = new Slot[LEVELS][SLOTS];
+        private final Slot due = new Slot();
+        private long currentTick;
+        private int size;
+
+        Wheel(long tickMillis, long nowMillis) {
+            this.tickMillis = tickMillis;
+            this.currentTick = nowMillis / tickMillis;
+            for (Slot[] level : levels) {
+                for (int i = 0; i < SLOTS; i++) {
+                    level[i] = new Slot();
+                }
+            }
+        }
+
+        void add(int id, long deadlineMillis) {
+            size++;
+            place(id, Math.ceilDiv(deadlineMillis, tickMillis));
+        }
+
+        /**
+         * Moves the clock to {@code nowMillis} and returns the ids of all timers due by then.
+         */
+        int[] advance(long nowMillis) {
+            long target = nowMillis / tickMillis;
+            while (currentTick < target) {
+                currentTick++;
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                        cascade(levels[level][(int) (currentTick >>> (SLOT_BITS * level)) & MASK]);
+                    }
+                }
+                Slot slot = levels[0][(int) currentTick & MASK];
+                slot.drainInto(due);
+            }
+            int[] ids = due.ids();
+            size -= ids.length;
+            due.clear();
+            return ids;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void place(int id, long tick) {
+            long delta = tick - currentTick;
+            if (delta <= 0) {
+                due.add(id, tick);
+                return;
+            }
+            if (delta >= SPAN) {
+                long parked = currentTick + SPAN - 1;
+                levels[LEVELS - 1][(int) (parked >>> (SLOT_BITS * (LEVELS - 1))) & MASK].add(id, tick);
+                return;
+            }
+            int level = 0;
+            while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            levels[level][(int) (tick >>> (SLOT_BITS * level)) & MASK].add(id, tick);
+        }
+
+        private void cascade(Slot slot) {
+            int count = slot.size;
+            int[] ids = Arrays.copyOf(slot.ids, count);
+            long[] ticks = Arrays.copyOf(slot.ticks, count);
+            slot.clear();
+            for (int i = 0; i < count; i++) {
+                place(ids[i], ticks[i]);
+            }
+        }
+    }
+
+    /**
+     * Growable arrays of timer ids and their due ticks.
+     */
+    private static final class Slot {
+        private int size;
+        private int[] ids = new int[0];
+        private long[] ticks = new long[0];
+
+        void add(int id, long tick) {
+            if (size == ids.length) {
+                int capacity = Math.max(8, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                ticks = Arrays.copyOf(ticks, capacity);
+            }
+            ids[size] = id;
+            ticks[size] = tick;
+            size++;
+        }
+
+        void drainInto(Slot target) {
+            for (int i = 0; i < size; i++) {
+                target.add(ids[i], ticks[i]);
+            }
+            clear();
+        }
+
+        int[] ids() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        void clear() {
+            size = 0;
+            if (ids.length > 64) {
+                ids = new int[0];
+                ticks = new long[0];
+            }
+        }
+    }
+}
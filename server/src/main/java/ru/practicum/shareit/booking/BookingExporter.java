@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes an owner's bookings, archived ones included, as newline-delimited JSON.
+ *
+ * <p>Rows are read through a forward-only cursor with a bounded fetch size and each one is written
+ * as soon as it is read, so memory use does not depend on the number of bookings. The cursor is
+ * held open by a read-only transaction for the duration of the export.
+ */
+@Component
+public class BookingExporter {
+    private static final String COLUMNS = "b.id, b.start_from, b.end_to, b.status, " +
+            "i.id AS item_id, i.name AS item_name, i.description AS item_description, i.available AS item_available, " +
+            "i.user_id AS item_owner_id, i.request_id AS item_request_id, " +
+            "u.id AS booker_id, u.name AS booker_name, u.email AS booker_email ";
+    private static final String JOINS = "JOIN items i ON i.id = b.item_id JOIN users u ON u.id = b.booker_id " +
+            "WHERE i.user_id = ? ";
+    private static final String EXPORT = "SELECT " + COLUMNS + "FROM bookings b " + JOINS +
+            "UNION ALL SELECT " + COLUMNS + "FROM bookings_archive b " + JOINS +
+            "ORDER BY start_from DESC, id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final ObjectWriter writer;
+
+    public BookingExporter(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           UserRepository userRepository,
+                           ObjectMapper objectMapper,
+                           @Value("${shareit.booking.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.userRepository = userRepository;
+        this.writer = objectMapper.writerFor(BookingDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Checks that the owner exists and returns a body streaming their bookings, newest first.
+     */
+    public StreamingResponseBody exportByOwnerId(Integer ownerId) {
+        userRepository.findById(ownerId).orElseThrow(() -> new NotFoundException("Owner with id " + ownerId + " not found"));
+        return out -> export(ownerId, out);
+    }
+
+    private void export(Integer ownerId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(EXPORT, rs -> {
+                try {
+                    writer.writeValue(generator, toBookingDto(rs));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, ownerId, ownerId));
+        }
+    }
+
+    private static BookingDto toBookingDto(ResultSet rs) throws SQLException {
+        ItemDto item = new ItemDto(rs.getInt("item_id"), rs.getString("item_name"), rs.getString("item_description"),
+                rs.getBoolean("item_available"), rs.getInt("item_owner_id"), rs.getObject("item_request_id", Integer.class));
+        UserDto booker = new UserDto(rs.getInt("booker_id"), rs.getString("booker_name"), rs.getString("booker_email"));
+        return new BookingDto(rs.getInt("id"), rs.getTimestamp("start_from").toLocalDateTime(),
+                rs.getTimestamp("end_to").toLocalDateTime(), item, rs.getString("status"), booker);
+    }
+}
@@ -0,0 +1,315 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory timeline of WAITING and APPROVED bookings per item, used to reject overlapping
+ * bookings without an overlap query on every insert.
+ *
+ * <p>A timeline is loaded from {@link BookingRepository} on first access and then kept current by
+ * {@link BookingServiceImpl}. The load does not flush the persistence context, so bookings persisted
+ * but not yet inserted by the calling transaction only enter a timeline through {@link #reserve}.
+ * Changes made inside a transaction are undone if it does not commit.
+ *
+ * <p>Ended intervals are pruned whenever a timeline is touched. At most
+ * {@code shareit.booking.index.max-items} timelines are kept, the least recently used one is dropped
+ * once that is exceeded and loaded again on its next use. Timelines touched by a transaction still in
+ * progress are not dropped, as the database does not show its bookings to a fresh load yet.
+ */
+@Component
+@Slf4j
+public class BookingIntervalIndex {
+    private static final List<Status> BLOCKING = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final int maxItems;
+    private final LinkedHashMap<Integer, Timeline> timelines = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter conflicts;
+    private final Counter evictions;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.index.max-items:10000}") int maxItems,
+                                MeterRegistry registry) {
+        this.bookingRepository = bookingRepository;
+        this.maxItems = maxItems;
+        this.hits = Counter.builder("booking.index.lookups").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("booking.index.lookups").tag("result", "miss").register(registry);
+        this.conflicts = Counter.builder("booking.index.conflicts").register(registry);
+        this.evictions = Counter.builder("booking.index.evictions").register(registry);
+        Gauge.builder("booking.index.items", this, BookingIntervalIndex::itemCount).register(registry);
+        Gauge.builder("booking.index.intervals", this, BookingIntervalIndex::intervalCount).register(registry);
+    }
+
+    /**
+     * Adds the booking to its item's timeline, failing with {@link ConflictException} if it
+     * overlaps another WAITING or APPROVED booking of the same item.
+     */
+    public void reserve(Booking booking) {
+        Integer itemId = booking.getItem().getId();
+        Timeline timeline = timeline(itemId);
+        long start = toMillis(booking.getStart());
+        long end = toMillis(booking.getEnd());
+        synchronized (timeline) {
+            timeline.remove(booking.getId());
+            if (timeline.overlaps(start, end)) {
+                conflicts.increment();
+                throw new ConflictException("Item id " + itemId + " is already booked for this period");
+            }
+            timeline.insert(booking.getId(), start, end);
+        }
+        onRollback(() -> {
+            synchronized (timeline) {
+                timeline.remove(booking.getId());
+            }
+        });
+    }
+
+    /**
+     * Removes the booking from its item's timeline, freeing the period for other bookings.
+     */
+    public void release(Booking booking) {
+        Timeline timeline = timeline(booking.getItem().getId());
+        long start = toMillis(booking.getStart());
+        long end = toMillis(booking.getEnd());
+        boolean removed;
+        synchronized (timeline) {
+            removed = timeline.remove(booking.getId());
+        }
+        if (removed) {
+            onRollback(() -> {
+                synchronized (timeline) {
+                    timeline.insert(booking.getId(), start, end);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the item's timeline, loading it outside of any lock on a miss, and prunes its ended
+     * intervals. The timeline stays pinned until the current transaction completes.
+     */
+    private Timeline timeline(Integer itemId) {
+        Timeline timeline;
+        synchronized (timelines) {
+            timeline = timelines.get(itemId);
+            if (timeline != null) {
+                pin(timeline);
+            }
+        }
+        if (timeline != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            Timeline loaded = load(itemId);
+            synchronized (timelines) {
+                timeline = timelines.putIfAbsent(itemId, loaded);
+                if (timeline == null) {
+                    timeline = loaded;
+                }
+                pin(timeline);
+                evictIdle();
+            }
+        }
+        long now = toMillis(LocalDateTime.now());
+        synchronized (timeline) {
+            timeline.prune(now);
+        }
+        return timeline;
+    }
+
+    /**
+     * Keeps the timeline from being evicted until the current transaction completes. Callers hold
+     * the lock on {@link #timelines}.
+     */
+    private void pin(Timeline timeline) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        timeline.pins++;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (timelines) {
+                    timeline.pins--;
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops the least recently used unpinned timelines beyond {@link #maxItems}. Callers hold the
+     * lock on {@link #timelines}.
+     */
+    private void evictIdle() {
+        Iterator<Timeline> eldest = timelines.values().iterator();
+        while (timelines.size() > maxItems && eldest.hasNext()) {
+            if (eldest.next().pins == 0) {
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private Timeline load(Integer itemId) {
+        Timeline timeline = new Timeline();
+        bookingRepository.findAllByItemIdAndStatusInAndEndAfter(itemId, BLOCKING, LocalDateTime.now())
+                .forEach(b -> timeline.insert(b.getId(), toMillis(b.getStart()), toMillis(b.getEnd())));
+        log.debug("Loaded {} bookings of item id{} into the interval index", timeline.size(), itemId);
+        return timeline;
+    }
+
+    private int itemCount() {
+        synchronized (timelines) {
+            return timelines.size();
+        }
+    }
+
+    private long intervalCount() {
+        synchronized (timelines) {
+            return timelines.values().stream().mapToLong(Timeline::size).sum();
+        }
+    }
+
+    private static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Intervals of one item sorted by start. {@code maxEnds[i]} is the greatest end among the first
+     * {@code i + 1} intervals, so an overlap check is a single binary search even if stored
+     * intervals overlap each other. Not thread-safe, callers synchronize on the instance, except for
+     * {@code pins}, which is guarded by the index's map.
+     */
+    static final class Timeline {
+        private int pins;
+        private int size;
+        private int[] ids = new int[4];
+        private long[] starts = new long[4];
+        private long[] ends = new long[4];
+        private long[] maxEnds = new long[4];
+
+        boolean overlaps(long start, long end) {
+            int before = lowerBound(end);
+            return before > 0 && maxEnds[before - 1] > start;
+        }
+
+        void insert(int id, long start, long end) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                maxEnds = Arrays.copyOf(maxEnds, capacity);
+            }
+            int position = lowerBound(start);
+            int tail = size - position;
+            System.arraycopy(ids, position, ids, position + 1, tail);
+            System.arraycopy(starts, position, starts, position + 1, tail);
+            System.arraycopy(ends, position, ends, position + 1, tail);
+            ids[position] = id;
+            starts[position] = start;
+            ends[position] = end;
+            size++;
+            recomputeMaxEnds(position);
+        }
+
+        boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    int tail = size - i - 1;
+                    System.arraycopy(ids, i + 1, ids, i, tail);
+                    System.arraycopy(starts, i + 1, starts, i, tail);
+                    System.arraycopy(ends, i + 1, ends, i, tail);
+                    size--;
+                    recomputeMaxEnds(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Removes the intervals ending at or before {@code now}.
+         *
+         * @return the number of removed intervals
+         */
+        int prune(long now) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (ends[i] > now) {
+                    ids[kept] = ids[i];
+                    starts[kept] = starts[i];
+                    ends[kept] = ends[i];
+                    kept++;
+                }
+            }
+            int pruned = size - kept;
+            if (pruned > 0) {
+                size = kept;
+                recomputeMaxEnds(0);
+            }
+            return pruned;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Number of intervals whose start is strictly before {@code time}.
+         */
+        private int lowerBound(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void recomputeMaxEnds(int from) {
+            long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+            for (int i = from; i < size; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ public interface BookingMapper {
     @Mapping(target = "start", source = "bookingRequest.start")
     @Mapping(target = "end", source = "bookingRequest.end")
     @Mapping(target = "booker", source = "booker")
+    @Mapping(target = "version", ignore = true)
     Booking toBooking(User booker, Item item, NewBookingRequest bookingRequest);
 
     @Mapping(target = "id", source = "id")
@@ -32,6 +33,10 @@ public interface BookingMapper {
     @Mapping(target = "status", source = "status")
     BookingDto toBookingDto(Booking booking);
 
+    @Mapping(target = "booker", source = "booker", qualifiedByName = "customMapUser")
+    @Mapping(target = "item", source = "item", qualifiedByName = "customMapItem")
+    BookingDto toBookingDto(ArchivedBooking booking);
+
     @Named("customMapItem")
     default ItemDto customMapItem(Item item) {
         if (item == null) {
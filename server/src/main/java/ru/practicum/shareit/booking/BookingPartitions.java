@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Creates the monthly range partitions of the PostgreSQL {@code bookings} table ahead of time.
+ *
+ * <p>Bookings outside the created months land in {@code bookings_default}. When a month gets its
+ * own partition, its rows are moved out of the default partition before it is attached, so the
+ * default partition stays small and queries bounded by {@code start_from} only scan the months
+ * they ask for. The default partition is locked against writes while its rows are moved, so a
+ * booking inserted meanwhile cannot make the attach fail.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.sql.init.platform", havingValue = "postgresql")
+@Slf4j
+public class BookingPartitions {
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+
+    public BookingPartitions(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${shareit.booking.partitions.months-ahead:12}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Creates the partitions on startup. A failure is only logged, the daily run tries again and
+     * bookings go to the default partition until then.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createOnStartup() {
+        try {
+            createUpcoming();
+        } catch (RuntimeException e) {
+            log.error("Could not create the upcoming booking partitions", e);
+        }
+    }
+
+    /**
+     * Makes sure the current month and the configured number of months after it have partitions.
+     */
+    @Scheduled(cron = "${shareit.booking.partitions.cron:0 0 3 * * *}")
+    public void createUpcoming() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            transactionTemplate.executeWithoutResult(status -> create(month));
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return "bookings_" + month.format(SUFFIX);
+    }
+
+    private void create(YearMonth month) {
+        String name = partitionName(month);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.execute("LOCK TABLE bookings_default IN SHARE ROW EXCLUSIVE MODE");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM bookings_default " +
+                        "WHERE start_from >= ? AND start_from < ? RETURNING *) INSERT INTO " + name + " SELECT * FROM moved",
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+        jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        log.info("Created booking partition {} with {} bookings moved from the default partition", name, moved);
+    }
+}
@@ -1,17 +1,64 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.dto.BookingPeriod;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
     List<Booking> findAllByBookerId(Integer userId);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerId(Integer bookerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndStartBetweenAndEndAfter(Integer bookerId, LocalDateTime earliestStart,
+                                                              LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndEndBefore(Integer bookerId, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndStartAfter(Integer bookerId, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndStatus(Integer bookerId, Status status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerId(Integer bookerId, ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndStartBetweenAndEndAfter(Integer bookerId, LocalDateTime earliestStart,
+                                                                LocalDateTime start, LocalDateTime end,
+                                                                ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndEndBefore(Integer bookerId, LocalDateTime end,
+                                                  ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndStartAfter(Integer bookerId, LocalDateTime start,
+                                                   ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndStatus(Integer bookerId, Status status,
+                                               ScrollPosition position, Limit limit, Sort sort);
+
 
     @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END " +
             "FROM Booking b " +
@@ -26,13 +73,96 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
     @Query("SELECT b FROM Booking b JOIN FETCH b.item i WHERE i.owner.id = :ownerId ORDER BY b.start DESC")
     List<Booking> findAllByItemOwnerId(@Param("ownerId") Integer ownerId);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerId(Integer ownerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndStartBetweenAndEndAfter(Integer ownerId, LocalDateTime earliestStart,
+                                                                 LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndEndBefore(Integer ownerId, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndStartAfter(Integer ownerId, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndStatus(Integer ownerId, Status status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerId(Integer ownerId, ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerIdAndStartBetweenAndEndAfter(Integer ownerId, LocalDateTime earliestStart,
+                                                                   LocalDateTime start, LocalDateTime end,
+                                                                   ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerIdAndEndBefore(Integer ownerId, LocalDateTime end,
+                                                     ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerIdAndStartAfter(Integer ownerId, LocalDateTime start,
+                                                      ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerIdAndStatus(Integer ownerId, Status status,
+                                                  ScrollPosition position, Limit limit, Sort sort);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingPeriod(b.start, b.end) " +
+            "FROM Booking b WHERE b.item.id = :itemId AND b.status IN :statuses " +
+            "AND b.start > :earliestStart AND b.end > :now ORDER BY b.start")
+    List<BookingPeriod> findPeriodsByItemId(@Param("itemId") Integer itemId,
+                                            @Param("statuses") Collection<Status> statuses,
+                                            @Param("earliestStart") LocalDateTime earliestStart,
+                                            @Param("now") LocalDateTime now);
+
     @Query("SELECT new ru.practicum.shareit.booking.dto.BookingPeriod(b.start, b.end) " +
-            "FROM Booking b WHERE b.item.id = :itemId AND b.start > :now ORDER BY b.start")
+            "FROM Booking b WHERE b.item.id = :itemId AND b.status NOT IN ('REJECTED', 'EXPIRED') AND b.start > :now " +
+            "ORDER BY b.start LIMIT 1")
     Optional<BookingPeriod> findNextBookingByItemId(@Param("itemId") Integer itemId, @Param("now") LocalDateTime now);
 
     @Query("SELECT new ru.practicum.shareit.booking.dto.BookingPeriod(b.start, b.end) " +
-            "FROM Booking b WHERE b.item.id = :itemId AND b.end < :now ORDER BY b.end DESC")
+            "FROM Booking b WHERE b.item.id = :itemId AND b.status NOT IN ('REJECTED', 'EXPIRED') AND b.end < :now " +
+            "ORDER BY b.end DESC LIMIT 1")
     Optional<BookingPeriod> findLastBookingByItemId(@Param("itemId") Integer itemId, @Param("now") LocalDateTime now);
 
-    List<Booking> findByItemIdIn(List<Integer> itemIds);
+    @Query("SELECT MIN(b.end) FROM Booking b WHERE b.item.id = :itemId AND b.status NOT IN ('REJECTED', 'EXPIRED') AND b.end >= :now")
+    Optional<LocalDateTime> findFirstEndByItemId(@Param("itemId") Integer itemId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :itemIds AND i.available = true AND NOT EXISTS (" +
+            "SELECT 1 FROM Booking b WHERE b.item.id = i.id AND b.status IN :statuses " +
+            "AND b.start > :earliestStart AND b.start < :end AND b.end > :start)")
+    List<Integer> findFreeItemIds(@Param("itemIds") Collection<Integer> itemIds,
+                                  @Param("statuses") Collection<Status> statuses,
+                                  @Param("earliestStart") LocalDateTime earliestStart,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.end < :cutoff")
+    List<Integer> findIdsByEndBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    long countByBookerId(Integer bookerId);
+
+    long countByBookerIdAndEndBefore(Integer bookerId, LocalDateTime end);
+
+    long countByItemOwnerId(Integer ownerId);
+
+    long countByItemOwnerIdAndEndBefore(Integer ownerId, LocalDateTime end);
+
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = :bookingId")
+    Optional<Integer> findItemIdById(@Param("bookingId") Integer bookingId);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.id IN :bookingIds")
+    List<Integer> findItemIdsByIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.id IN :bookingIds")
+    List<Booking> findAllWithItemByIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 WHERE b.id IN :bookingIds")
+    int updateStatusByIdIn(@Param("bookingIds") Collection<Integer> bookingIds, @Param("status") Status status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    List<Booking> findAllByItemIdAndStatusInAndEndAfter(Integer itemId, Collection<Status> statuses, LocalDateTime end);
 }
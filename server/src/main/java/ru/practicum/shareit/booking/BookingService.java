@@ -1,19 +1,41 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.AvailabilityRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSlice;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdate;
+import ru.practicum.shareit.booking.dto.ItemAvailability;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingService {
     BookingDto createBookingRequest(Integer bookerId, NewBookingRequest booking);
 
+    List<BookingDto> createBookingRequests(Integer bookerId, List<NewBookingRequest> bookings);
+
     BookingDto updateBookingStatus(Integer bookingId, Integer ownerId, boolean processable);
 
+    List<BookingStatusUpdate> updateBookingStatuses(List<Integer> bookingIds, Integer ownerId, boolean processable);
+
     BookingDto findById(Integer id, Integer userId);
 
-    List<BookingDto> findAllByUserId(Integer userId, String state);
+    List<BookingDto> findAllByUserId(Integer userId, String state, int from, int size);
+
+    List<BookingDto> findAllByOwnerId(Integer ownerId, String state, int from, int size);
+
+    BookingSlice scrollAllByUserId(Integer userId, String state, String cursor, int size);
+
+    BookingSlice scrollAllByOwnerId(Integer ownerId, String state, String cursor, int size);
+
+    BookingStateCounts countByUserId(Integer userId);
+
+    BookingStateCounts countByOwnerId(Integer ownerId);
+
+    int expireBookings(Collection<Integer> bookingIds);
 
-    List<BookingDto> findAllByOwnerId(Integer ownerId, String state);
+    List<ItemAvailability> checkAvailability(AvailabilityRequest request);
 
 }
@@ -1,11 +1,25 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.AvailabilityRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSlice;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdate;
+import ru.practicum.shareit.booking.dto.ItemAvailability;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.BatchConflictException;
+import ru.practicum.shareit.exception.BatchException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.IllegalAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -14,17 +28,45 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final List<Status> BLOCKING = List.of(Status.WAITING, Status.APPROVED);
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper mapper;
+    private final BookingIntervalIndex bookingIndex;
+    private final ItemLockStripes itemLocks;
+    private final BookingCalendar calendar;
+    private final ItemBookingPointers itemPointers;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingCounters counters;
+    private final BookingExpiryWheel expiryWheel;
+
+    /**
+     * Longest allowed booking. Besides being a rule for bookers, it bounds how early a booking that
+     * is still running can have started, which lets the queries for current bookings skip older
+     * partitions. The gateway checks the same limit.
+     */
+    @Value("${shareit.booking.max-duration-days:92}")
+    private int maxDurationDays;
 
 
     @Override
@@ -33,91 +75,398 @@ public class BookingServiceImpl implements BookingService {
         User user = userRepository.findById(bookerId)
                 .orElseThrow(() -> new NotFoundException("User " + bookerId + " was not found"));
 
+        lockItems(List.of(bookingRequest.getItemId()));
         Item item = itemRepository.findById(bookingRequest.getItemId())
                 .orElseThrow(() -> new NotFoundException("Item id " + bookingRequest.getItemId() + " not found"));
+
+        Booking booking = newBooking(user, item, bookingRequest);
+        bookingRepository.save(booking);
+        bookingIndex.reserve(booking);
+        itemPointers.onCreated(booking);
+        counters.onCreated(booking);
+        expiryWheel.schedule(booking);
+        return mapper.toBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDto> createBookingRequests(Integer bookerId, List<NewBookingRequest> bookingRequests) {
+        User user = userRepository.findById(bookerId)
+                .orElseThrow(() -> new NotFoundException("User " + bookerId + " was not found"));
+
+        Set<Integer> itemIds = bookingRequests.stream()
+                .map(NewBookingRequest::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        lockItems(itemIds);
+        Map<Integer, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Booking> bookings = new ArrayList<>(bookingRequests.size());
+        List<String> errors = new ArrayList<>(Collections.nCopies(bookingRequests.size(), null));
+        for (int i = 0; i < bookingRequests.size(); i++) {
+            NewBookingRequest request = bookingRequests.get(i);
+            Item item = items.get(request.getItemId());
+            try {
+                if (item == null) {
+                    throw new NotFoundException("Item id " + request.getItemId() + " not found");
+                }
+                bookings.add(newBooking(user, item, request));
+            } catch (NotFoundException | BadRequestException e) {
+                bookings.add(null);
+                errors.set(i, e.getMessage());
+            }
+        }
+        if (errors.stream().anyMatch(Objects::nonNull)) {
+            throw new BatchException("Bookings were not created", errors);
+        }
+        bookingRepository.saveAll(bookings);
+        for (int i = 0; i < bookings.size(); i++) {
+            try {
+                bookingIndex.reserve(bookings.get(i));
+            } catch (ConflictException e) {
+                errors.set(i, e.getMessage());
+            }
+        }
+        if (errors.stream().anyMatch(Objects::nonNull)) {
+            throw new BatchConflictException("Bookings were not created", errors);
+        }
+        bookings.forEach(itemPointers::onCreated);
+        bookings.forEach(counters::onCreated);
+        bookings.forEach(expiryWheel::schedule);
+        return bookings.stream()
+                .map(mapper::toBookingDto)
+                .toList();
+    }
+
+    /**
+     * Serializes booking writes per item for the rest of the transaction and drops the items'
+     * cached calendars once it completes.
+     */
+    private void lockItems(Collection<Integer> itemIds) {
+        itemLocks.lockUntilCompletion(itemIds);
+        itemIds.forEach(calendar::evictAfterCompletion);
+    }
+
+    private Booking newBooking(User booker, Item item, NewBookingRequest bookingRequest) {
         if (!item.getAvailable()) {
             throw new BadRequestException("Cannot book unavailable item");
         }
-
-        Booking booking = mapper.toBooking(user, item, bookingRequest);
+        Booking booking = mapper.toBooking(booker, item, bookingRequest);
+        booking.setStart(booking.getStart().truncatedTo(ChronoUnit.MICROS));
+        booking.setEnd(booking.getEnd().truncatedTo(ChronoUnit.MICROS));
         if (booking.getStart().equals(booking.getEnd())) {
             throw new BadRequestException("Booking start shouldn't be equal to booking end");
         }
+        if (booking.getStart().plusDays(maxDurationDays).isBefore(booking.getEnd())) {
+            throw new BadRequestException("Booking cannot be longer than " + maxDurationDays + " days");
+        }
         if (booking.getEnd().isBefore(LocalDateTime.now()) || booking.getStart().isBefore(LocalDateTime.now())) {
             throw new BadRequestException("Booking start or end cannot be in the past");
         }
-        bookingRepository.save(booking);
-        return mapper.toBookingDto(booking);
+        return booking;
     }
 
 
     @Override
     @Transactional
     public BookingDto updateBookingStatus(Integer bookingId, Integer ownerId, boolean processable) {
+        Integer itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking id " + bookingId + " not found"));
+        lockItems(List.of(itemId));
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Booking id " + bookingId + " not found"));
         if (!booking.getItem().getOwner().getId().equals(ownerId)) {
             throw new IllegalAccessException("Not booking's owner");
         }
+        if (booking.getStatus() == Status.EXPIRED) {
+            throw new BadRequestException("Booking id " + bookingId + " has expired");
+        }
+        Status previous = booking.getStatus();
+        boolean blockingChanged = processable == (previous == Status.REJECTED);
         if (processable) {
+            if (booking.getStatus() == Status.REJECTED) {
+                bookingIndex.reserve(booking);
+            }
             booking.setStatus(Status.APPROVED);
         } else {
+            bookingIndex.release(booking);
             booking.setStatus(Status.REJECTED);
         }
         bookingRepository.save(booking);
+        counters.onStatusChanged(booking, previous, booking.getStatus());
+        if (blockingChanged) {
+            itemPointers.refresh(itemId);
+        }
         return mapper.toBookingDto(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingStatusUpdate> updateBookingStatuses(List<Integer> bookingIds, Integer ownerId, boolean processable) {
+        Set<Integer> ids = new LinkedHashSet<>(bookingIds);
+        lockItems(bookingRepository.findItemIdsByIdIn(ids));
+        Map<Integer, Booking> bookings = bookingRepository.findAllWithItemByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Status status = processable ? Status.APPROVED : Status.REJECTED;
+
+        List<BookingStatusUpdate> updates = new ArrayList<>(ids.size());
+        List<Integer> updatedIds = new ArrayList<>(ids.size());
+        List<Booking> updated = new ArrayList<>(ids.size());
+        List<Status> previous = new ArrayList<>(ids.size());
+        Set<Integer> changedItemIds = new HashSet<>();
+        for (Integer id : ids) {
+            Booking booking = bookings.get(id);
+            String error = null;
+            if (booking == null) {
+                error = "Booking id " + id + " not found";
+            } else if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+                error = "Not booking's owner";
+            } else if (booking.getStatus() == Status.EXPIRED) {
+                error = "Booking id " + id + " has expired";
+            } else if (processable && booking.getStatus() == Status.REJECTED) {
+                try {
+                    bookingIndex.reserve(booking);
+                } catch (ConflictException e) {
+                    error = e.getMessage();
+                }
+            } else if (!processable) {
+                bookingIndex.release(booking);
+            }
+            if (error == null) {
+                updatedIds.add(id);
+                updated.add(booking);
+                previous.add(booking.getStatus());
+                if (processable == (booking.getStatus() == Status.REJECTED)) {
+                    changedItemIds.add(booking.getItem().getId());
+                }
+                updates.add(new BookingStatusUpdate(id, status.name(), null));
+            } else {
+                updates.add(new BookingStatusUpdate(id, null, error));
+            }
+        }
+        if (!updatedIds.isEmpty()) {
+            bookingRepository.updateStatusByIdIn(updatedIds, status);
+            counters.onStatusChanged(updated, previous, status);
+        }
+        changedItemIds.forEach(itemPointers::refresh);
+        return updates;
+    }
+
+    @Override
+    @Transactional
+    public int expireBookings(Collection<Integer> bookingIds) {
+        lockItems(bookingRepository.findItemIdsByIdIn(bookingIds));
+        List<Booking> expired = bookingRepository.findAllWithItemByIdIn(bookingIds).stream()
+                .filter(booking -> booking.getStatus() == Status.WAITING)
+                .toList();
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        expired.forEach(bookingIndex::release);
+        bookingRepository.updateStatusByIdIn(expired.stream().map(Booking::getId).toList(), Status.EXPIRED);
+        counters.onStatusChanged(expired, Collections.nCopies(expired.size(), Status.WAITING), Status.EXPIRED);
+        expired.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .forEach(itemPointers::refresh);
+        return expired.size();
+    }
+
+    @Override
+    public List<ItemAvailability> checkAvailability(AvailabilityRequest request) {
+        if (!request.getStart().isBefore(request.getEnd())) {
+            throw new BadRequestException("Window start should be before its end");
+        }
+        Set<Integer> itemIds = new LinkedHashSet<>(request.getItemIds());
+        Set<Integer> free = new HashSet<>(bookingRepository.findFreeItemIds(itemIds, BLOCKING,
+                earliestStart(request.getStart()), request.getStart(), request.getEnd()));
+        return itemIds.stream()
+                .map(itemId -> new ItemAvailability(itemId, free.contains(itemId)))
+                .toList();
+    }
+
     @Override
     public BookingDto findById(Integer id, Integer userId) {
-        Booking booking = bookingRepository.findById(id).orElseThrow(() -> new NotFoundException("Booking id " + id + " not found"));
-        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
-            throw new IllegalAccessException("Not booker or owner");
+        Booking booking = bookingRepository.findById(id).orElse(null);
+        if (booking == null) {
+            ArchivedBooking archived = archivedBookingRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Booking id " + id + " not found"));
+            checkParticipant(archived.getBooker(), archived.getItem(), userId);
+            return mapper.toBookingDto(archived);
         }
+        checkParticipant(booking.getBooker(), booking.getItem(), userId);
         return mapper.toBookingDto(booking);
     }
 
+    private void checkParticipant(User booker, Item item, Integer userId) {
+        if (!booker.getId().equals(userId) && !item.getOwner().getId().equals(userId)) {
+            throw new IllegalAccessException("Not booker or owner");
+        }
+    }
+
     @Override
-    public List<BookingDto> findAllByUserId(Integer userId, String state) {
+    public List<BookingDto> findAllByUserId(Integer userId, String state, int from, int size) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Booker with id " + userId + " not found"));
-        try {
-            State state1 = Enum.valueOf(State.class, state.toUpperCase());
-            List<Booking> bookings = stateSwitch(state1, bookingRepository.findAllByBookerId(userId));
-            return bookings.stream()
-                    .sorted(Comparator.comparing(Booking::getStart).reversed())
-                    .map(mapper::toBookingDto)
-                    .toList();
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("State " + state + " not found");
+        State state1 = parseState(state);
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(from, size, NEWEST_FIRST);
+        List<Booking> bookings = switch (state1) {
+            case PAST -> bookingRepository.findAllByBookerIdAndEndBefore(userId, now, page);
+            case FUTURE -> bookingRepository.findAllByBookerIdAndStartAfter(userId, now, page);
+            case CURRENT -> bookingRepository.findAllByBookerIdAndStartBetweenAndEndAfter(userId, earliestStart(now), now, now, page);
+            case WAITING -> bookingRepository.findAllByBookerIdAndStatus(userId, Status.WAITING, page);
+            case REJECTED -> bookingRepository.findAllByBookerIdAndStatus(userId, Status.REJECTED, page);
+            case ALL -> bookingRepository.findAllByBookerId(userId, page);
+        };
+        List<BookingDto> dtos = bookings.stream()
+                .map(mapper::toBookingDto)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if ((state1 == State.PAST || state1 == State.ALL) && bookings.size() < size) {
+            long hotCount = bookings.isEmpty()
+                    ? (state1 == State.PAST ? bookingRepository.countByBookerIdAndEndBefore(userId, now)
+                    : bookingRepository.countByBookerId(userId))
+                    : (long) from * size + bookings.size();
+            archivedBookingRepository.findPageByBookerId(userId, archiveOffset(from, size, hotCount), size - bookings.size())
+                    .forEach(archived -> dtos.add(mapper.toBookingDto(archived)));
+        }
+        return dtos;
+    }
+
+    @Override
+    public List<BookingDto> findAllByOwnerId(Integer ownerId, String state, int from, int size) {
+        userRepository.findById(ownerId).orElseThrow(() -> new NotFoundException("Owner with id " + ownerId + " not found"));
+        State state1 = parseState(state);
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(from, size, NEWEST_FIRST);
+        List<Booking> bookings = switch (state1) {
+            case PAST -> bookingRepository.findAllByItemOwnerIdAndEndBefore(ownerId, now, page);
+            case FUTURE -> bookingRepository.findAllByItemOwnerIdAndStartAfter(ownerId, now, page);
+            case CURRENT -> bookingRepository.findAllByItemOwnerIdAndStartBetweenAndEndAfter(ownerId, earliestStart(now), now, now, page);
+            case WAITING -> bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.WAITING, page);
+            case REJECTED -> bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.REJECTED, page);
+            case ALL -> bookingRepository.findAllByItemOwnerId(ownerId, page);
+        };
+        List<BookingDto> dtos = bookings.stream()
+                .map(mapper::toBookingDto)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if ((state1 == State.PAST || state1 == State.ALL) && bookings.size() < size) {
+            long hotCount = bookings.isEmpty()
+                    ? (state1 == State.PAST ? bookingRepository.countByItemOwnerIdAndEndBefore(ownerId, now)
+                    : bookingRepository.countByItemOwnerId(ownerId))
+                    : (long) from * size + bookings.size();
+            archivedBookingRepository.findPageByItemOwnerId(ownerId, archiveOffset(from, size, hotCount), size - bookings.size())
+                    .forEach(archived -> dtos.add(mapper.toBookingDto(archived)));
+        }
+        return dtos;
+    }
+
+    /**
+     * Archived bookings are listed after all bookings still in the hot table. A page that is not
+     * filled by hot bookings continues in the archive at the position right after them.
+     */
+    private static int archiveOffset(int from, int size, long hotCount) {
+        return (int) Math.max(0, (long) from * size - hotCount);
+    }
+
+    @Override
+    public BookingSlice scrollAllByUserId(Integer userId, String state, String cursor, int size) {
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Booker with id " + userId + " not found"));
+        State state1 = parseState(state);
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(size);
+        return scroll(state1, BookingCursor.decode(cursor), size, position -> switch (state1) {
+            case PAST -> bookingRepository.findAllByBookerIdAndEndBefore(userId, now, position, limit, NEWEST_FIRST);
+            case FUTURE -> bookingRepository.findAllByBookerIdAndStartAfter(userId, now, position, limit, NEWEST_FIRST);
+            case CURRENT -> bookingRepository.findAllByBookerIdAndStartBetweenAndEndAfter(userId, earliestStart(now), now, now,
+                    position, limit, NEWEST_FIRST);
+            case WAITING -> bookingRepository.findAllByBookerIdAndStatus(userId, Status.WAITING, position, limit, NEWEST_FIRST);
+            case REJECTED -> bookingRepository.findAllByBookerIdAndStatus(userId, Status.REJECTED, position, limit, NEWEST_FIRST);
+            case ALL -> bookingRepository.findAllByBookerId(userId, position, limit, NEWEST_FIRST);
+        }, (from, archiveLimit) -> from.start() == null
+                ? archivedBookingRepository.findPageByBookerId(userId, 0, archiveLimit)
+                : archivedBookingRepository.findPageByBookerIdBefore(userId, from.start(), from.id(), archiveLimit));
+    }
+
+    @Override
+    public BookingSlice scrollAllByOwnerId(Integer ownerId, String state, String cursor, int size) {
+        userRepository.findById(ownerId).orElseThrow(() -> new NotFoundException("Owner with id " + ownerId + " not found"));
+        State state1 = parseState(state);
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(size);
+        return scroll(state1, BookingCursor.decode(cursor), size, position -> switch (state1) {
+            case PAST -> bookingRepository.findAllByItemOwnerIdAndEndBefore(ownerId, now, position, limit, NEWEST_FIRST);
+            case FUTURE -> bookingRepository.findAllByItemOwnerIdAndStartAfter(ownerId, now, position, limit, NEWEST_FIRST);
+            case CURRENT -> bookingRepository.findAllByItemOwnerIdAndStartBetweenAndEndAfter(ownerId, earliestStart(now), now, now,
+                    position, limit, NEWEST_FIRST);
+            case WAITING -> bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.WAITING, position, limit, NEWEST_FIRST);
+            case REJECTED -> bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.REJECTED, position, limit, NEWEST_FIRST);
+            case ALL -> bookingRepository.findAllByItemOwnerId(ownerId, position, limit, NEWEST_FIRST);
+        }, (from, archiveLimit) -> from.start() == null
+                ? archivedBookingRepository.findPageByItemOwnerId(ownerId, 0, archiveLimit)
+                : archivedBookingRepository.findPageByItemOwnerIdBefore(ownerId, from.start(), from.id(), archiveLimit));
+    }
+
+    /**
+     * Reads one slice of a cursor-paged list. Like the offset lists, PAST and ALL continue in the
+     * archive once the hot table has no more bookings: the rest of the slice is filled from the
+     * newest archived bookings, and later cursors scroll the archive by start and id.
+     */
+    private BookingSlice scroll(State state, BookingCursor cursor, int size,
+                                Function<ScrollPosition, Window<Booking>> hot,
+                                BiFunction<BookingCursor, Integer, List<ArchivedBooking>> archive) {
+        boolean withArchive = state == State.PAST || state == State.ALL;
+        if (cursor.inArchive() && !withArchive) {
+            throw new BadRequestException("Booking cursor does not belong to state " + state);
+        }
+        List<BookingDto> bookings = new ArrayList<>();
+        BookingCursor from = cursor;
+        if (!cursor.inArchive()) {
+            Window<Booking> window = hot.apply(cursor.position());
+            if (!withArchive || window.hasNext()) {
+                return toSlice(window);
+            }
+            window.forEach(booking -> bookings.add(mapper.toBookingDto(booking)));
+            from = BookingCursor.ARCHIVE_START;
+        }
+        int wanted = size - bookings.size();
+        List<ArchivedBooking> archived = archive.apply(from, wanted + 1);
+        archived.stream().limit(wanted).forEach(booking -> bookings.add(mapper.toBookingDto(booking)));
+        String next = null;
+        if (archived.size() > wanted) {
+            next = wanted == 0 ? from.encode() : BookingCursor.next(archived.get(wanted - 1));
         }
+        return new BookingSlice(bookings, next);
     }
 
     @Override
-    public List<BookingDto> findAllByOwnerId(Integer ownerId, String state) {
+    public BookingStateCounts countByUserId(Integer userId) {
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Booker with id " + userId + " not found"));
+        return counters.get(userId, BookingCounters.BOOKER);
+    }
+
+    @Override
+    public BookingStateCounts countByOwnerId(Integer ownerId) {
         userRepository.findById(ownerId).orElseThrow(() -> new NotFoundException("Owner with id " + ownerId + " not found"));
+        return counters.get(ownerId, BookingCounters.OWNER);
+    }
+
+    /**
+     * Lower bound on the start of a booking still in progress at {@code now}. Bounding the start
+     * from both sides lets CURRENT queries skip partitions of bookings that must have ended.
+     */
+    private LocalDateTime earliestStart(LocalDateTime now) {
+        return now.minusDays(maxDurationDays);
+    }
 
+    private BookingSlice toSlice(Window<Booking> window) {
+        return new BookingSlice(window.map(mapper::toBookingDto).getContent(), BookingCursor.next(window));
+    }
+
+    private State parseState(String state) {
         try {
-            State state1 = Enum.valueOf(State.class, state.toUpperCase());
-            List<Booking> bookings = stateSwitch(state1, bookingRepository.findAllByItemOwnerId(ownerId));
-            return bookings.stream()
-                    .sorted(Comparator.comparing(Booking::getStart).reversed())
-                    .map(mapper::toBookingDto)
-                    .toList();
+            return Enum.valueOf(State.class, state.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("State " + state + " not found");
         }
     }
-
-    private List<Booking> stateSwitch(State state1, List<Booking> bookings) {
-        return switch (state1) {
-            case PAST -> bookings.stream().filter(b -> b.getEnd().isBefore(LocalDateTime.now())).toList();
-            case FUTURE -> bookings.stream().filter(b -> b.getStart().isAfter(LocalDateTime.now())).toList();
-            case CURRENT -> bookings.stream()
-                    .filter(b -> b.getEnd().isAfter(LocalDateTime.now()))
-                    .filter(b -> b.getStart().isBefore(LocalDateTime.now()))
-                    .toList();
-            case WAITING -> bookings.stream().filter(b -> b.getStatus().equals(Status.WAITING)).toList();
-            case REJECTED -> bookings.stream().filter(b -> b.getStatus().equals(Status.REJECTED)).toList();
-            case ALL -> bookings;
-        };
-    }
 }
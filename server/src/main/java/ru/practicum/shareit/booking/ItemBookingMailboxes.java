@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Entry point for single booking requests. With {@code shareit.booking.mailbox.enabled} set, requests
+ * are queued per item in arrival order and created one at a time by a virtual thread owned by that
+ * item, so requests for a hot item stop competing with each other and are checked for overlaps
+ * against the in-memory index in a fixed order. Otherwise requests are created on the calling thread.
+ *
+ * <p>A mailbox exists only while it has pending requests: its writer removes it once the queue is
+ * empty and the next request for the item starts a new one. Each mailbox holds at most
+ * {@code shareit.booking.mailbox.capacity} pending requests, further requests for the item are
+ * rejected with {@link TooManyRequestsException} until its writer catches up.
+ */
+@Component
+public class ItemBookingMailboxes {
+    private final BookingService bookingService;
+    private final boolean enabled;
+    private final int capacity;
+    private final Counter rejections;
+    private final Map<Integer, Queue<Runnable>> mailboxes = new ConcurrentHashMap<>();
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("booking-mailbox-", 0).factory());
+
+    public ItemBookingMailboxes(BookingService bookingService,
+                                MeterRegistry registry,
+                                @Value("${shareit.booking.mailbox.enabled:false}") boolean enabled,
+                                @Value("${shareit.booking.mailbox.capacity:1000}") int capacity) {
+        this.bookingService = bookingService;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.rejections = Counter.builder("booking.mailbox.rejections").register(registry);
+        Gauge.builder("booking.mailbox.items", mailboxes, Map::size).register(registry);
+    }
+
+    public CompletableFuture<BookingDto> createBookingRequest(Integer bookerId, NewBookingRequest request) {
+        Integer itemId = request.getItemId();
+        if (!enabled || itemId == null) {
+            return CompletableFuture.completedFuture(bookingService.createBookingRequest(bookerId, request));
+        }
+        CompletableFuture<BookingDto> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(bookingService.createBookingRequest(bookerId, request));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        boolean[] created = new boolean[1];
+        boolean[] accepted = new boolean[1];
+        mailboxes.compute(itemId, (id, mailbox) -> {
+            if (mailbox == null) {
+                mailbox = new LinkedBlockingQueue<>(capacity);
+                created[0] = true;
+            }
+            accepted[0] = mailbox.offer(task);
+            return mailbox;
+        });
+        if (!accepted[0]) {
+            rejections.increment();
+            throw new TooManyRequestsException("Too many pending booking requests for item id " + itemId);
+        }
+        if (created[0]) {
+            writers.execute(() -> drain(itemId));
+        }
+        return result;
+    }
+
+    /**
+     * Runs the item's requests until its mailbox is empty, then removes the mailbox. The emptiness
+     * check and the removal are atomic with respect to {@link #createBookingRequest}, so a request
+     * is either seen by this writer or starts a new one.
+     */
+    private void drain(Integer itemId) {
+        Queue<Runnable> mailbox = mailboxes.get(itemId);
+        do {
+            Runnable task;
+            while ((task = mailbox.poll()) != null) {
+                task.run();
+            }
+        } while (mailboxes.computeIfPresent(itemId, (id, tasks) -> tasks.isEmpty() ? null : tasks) != null);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.close();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Advances item booking pointers whose next booking has started or whose current booking has ended.
+ * Each item is refreshed in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingPointerSweeper {
+    private final ItemBookingPointers pointers;
+
+    @Value("${shareit.items.booking-pointers.sweep-batch:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-pointers.sweep-delay:60000}")
+    public void sweep() {
+        List<Integer> itemIds;
+        do {
+            itemIds = pointers.findStale(batchSize);
+            itemIds.forEach(pointers::refresh);
+            if (!itemIds.isEmpty()) {
+                log.debug("Refreshed booking pointers of {} items", itemIds.size());
+            }
+        } while (itemIds.size() == batchSize);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains the last/next booking pointers stored on items. A new booking can only move the next
+ * pointer earlier, so creation is a single conditional update; status changes and the passage of
+ * time recompute the pointers of the item from its bookings. An item whose bookings have all been
+ * archived takes its last booking from {@code bookings_archive}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBookingPointers {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemLockStripes itemLocks;
+
+    /**
+     * Takes a newly created booking into account. Bookings always start in the future, so the
+     * last pointer is unaffected.
+     */
+    @Transactional
+    public void onCreated(Booking booking) {
+        itemRepository.offerNextBooking(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+    }
+
+    /**
+     * Recomputes the pointers of the item from its bookings. Locks the item's stripe, so the result
+     * cannot be overwritten by a concurrent booking write.
+     */
+    @Transactional
+    public void refresh(Integer itemId) {
+        itemLocks.lockUntilCompletion(itemId);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<BookingPeriod> last = bookingRepository.findLastBookingByItemId(itemId, now)
+                .or(() -> archivedBookingRepository.findLastBookingByItemId(itemId));
+        Optional<BookingPeriod> next = bookingRepository.findNextBookingByItemId(itemId, now);
+        LocalDateTime refreshAt = bookingRepository.findFirstEndByItemId(itemId, now)
+                .map(end -> next.map(BookingPeriod::getStart).filter(start -> start.isBefore(end)).orElse(end))
+                .orElse(null);
+        itemRepository.updateBookingPointers(itemId,
+                last.map(BookingPeriod::getStart).orElse(null),
+                last.map(BookingPeriod::getEnd).orElse(null),
+                next.map(BookingPeriod::getStart).orElse(null),
+                next.map(BookingPeriod::getEnd).orElse(null),
+                refreshAt);
+    }
+
+    public List<Integer> findStale(int limit) {
+        return itemRepository.findIdsWithStaleBookingPointers(LocalDateTime.now(), Limit.of(limit));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed array of locks striped by item id. Booking writers for the same item are serialized
+ * until their transaction completes, writers for items on different stripes never wait for each other.
+ */
+@Component
+public class ItemLockStripes {
+    private final ReentrantLock[] stripes;
+
+    public ItemLockStripes(@Value("${shareit.booking.lock-stripes:64}") int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Locks the item's stripe and releases it after the current transaction commits or rolls back.
+     */
+    public void lockUntilCompletion(Integer itemId) {
+        lockUntilCompletion(List.of(itemId));
+    }
+
+    /**
+     * Locks the stripes of all given items in ascending stripe order, so two transactions locking
+     * overlapping sets of items cannot deadlock, and releases them when the transaction completes.
+     */
+    public void lockUntilCompletion(Collection<Integer> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item locks can only be taken inside a transaction");
+        }
+        int[] indexes = itemIds.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int index : indexes) {
+            stripes[index].lock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int index : indexes) {
+                    stripes[index].unlock();
+                }
+            }
+        });
+    }
+
+    int stripeIndex(Integer itemId) {
+        int hash = itemId.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
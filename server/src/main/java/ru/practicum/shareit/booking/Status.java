@@ -1,5 +1,5 @@
 package ru.practicum.shareit.booking;
 
 public enum Status {
-    WAITING, APPROVED, REJECTED
+    WAITING, APPROVED, REJECTED, EXPIRED
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.exception;
+
+import java.util.List;
+
+/**
+ * Rejects a batch whose entries were each valid but some of them conflict with existing data or with
+ * each other, such as overlapping bookings.
+ */
+public class BatchConflictException extends BatchException {
+    public BatchConflictException(String message, List<String> errors) {
+        super(message, errors);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class BatchErrorResponse extends ErrorResponse {
+    private final List<String> errors;
+
+    public BatchErrorResponse(String error, String description, List<String> errors) {
+        super(error, description);
+        this.errors = errors;
+    }
+}
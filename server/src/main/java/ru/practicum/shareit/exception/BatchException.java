@@ -0,0 +1,20 @@
+package ru.practicum.shareit.exception;
+
+import java.util.List;
+
+/**
+ * Rejects a whole batch. {@code errors} is aligned with the submitted entries, {@code null} marks an
+ * entry that was valid on its own.
+ */
+public class BatchException extends RuntimeException {
+    private final List<String> errors;
+
+    public BatchException(String message, List<String> errors) {
+        super(message);
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -32,6 +32,34 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка запроса", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public BatchErrorResponse handleBatchException(final BatchException e) {
+        log.warn("Ошибка пакетного запроса: {} {}", e.getMessage(), e.getErrors());
+        return new BatchErrorResponse("Ошибка запроса", e.getMessage(), e.getErrors());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public BatchErrorResponse handleBatchConflictException(final BatchConflictException e) {
+        log.warn("Конфликт пакетного запроса: {} {}", e.getMessage(), e.getErrors());
+        return new BatchErrorResponse("Конфликт", e.getMessage(), e.getErrors());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final ConflictException e) {
+        log.warn("Конфликт: {}", e.getMessage());
+        return new ErrorResponse("Конфликт", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ErrorResponse handleTooManyRequestsException(final TooManyRequestsException e) {
+        log.warn("Слишком много запросов: {}", e.getMessage());
+        return new ErrorResponse("Слишком много запросов", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleIllegalAccessException(final java.lang.IllegalAccessException e) {
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -12,12 +13,15 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoCommentBooking;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItem;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -58,6 +62,14 @@ public class ItemController {
         return itemService.get(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<BookingPeriod> getAvailability(@PathVariable Integer itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Getting free slots of item id={} between {} and {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping
     public List<ItemDtoCommentBooking> getUserItems(@RequestHeader(HEADER) Integer ownerId) {
         log.info("Getting items of user id={}", ownerId);
@@ -67,9 +79,25 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> search(@RequestParam(value = "text") String text,
                                 @RequestParam(defaultValue = "0") int from,
-                                @RequestParam(defaultValue = "10") int size) {
+                                @RequestParam(defaultValue = "10") int size,
+                                @RequestParam(defaultValue = "false") boolean fuzzy) {
         log.info("Searching for items with {}", text);
-        return itemService.search(text, from, size);
+        return fuzzy ? itemService.fuzzySearch(text, from, size) : itemService.search(text, from, size);
+    }
+
+    @GetMapping(value = "/search", params = {"facets=true", "fuzzy!=true"})
+    public ItemSearchPage searchWithFacets(@RequestParam(value = "text") String text,
+                                           @RequestParam(defaultValue = "0") int from,
+                                           @RequestParam(defaultValue = "10") int size) {
+        log.info("Searching for items with {} and counting facets", text);
+        return itemService.searchWithFacets(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = "10") int size) {
+        log.debug("Suggesting item names for {}", prefix);
+        return itemService.suggest(prefix, size);
     }
 
     @DeleteMapping("/{itemId}")
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+/**
+ * Counts over all items matching a search. {@code withRequest}, {@code withoutRequest} and the
+ * owner buckets only count the available ones, which are the items the results consist of.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class ItemSearchFacets {
+    int available;
+    int unavailable;
+    int withRequest;
+    int withoutRequest;
+    List<OwnerBucket> owners;
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    public static class OwnerBucket {
+        Integer ownerId;
+        int items;
+    }
+}
@@ -27,12 +27,16 @@ public interface ItemMapper {
     @Mapping(target = "name", source = "itemRequest.name")
     @Mapping(target = "description", source = "itemRequest.description")
     @Mapping(target = "requestId", source = "itemRequest.requestId")
+    @Mapping(target = "bookingPointers", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Item toItem(User owner, NewItemRequest itemRequest);
 
     @Mapping(target = "ownerId", source = "item.owner.id")
     ItemDto toItemDto(Item item);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "bookingPointers", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Item updateItem(UpdateItem request, @MappingTarget Item item);
 
     @Mapping(target = "id", source = "item.id")
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last and next booking periods of an item, kept on the item row so item reads never touch
+ * the bookings table. The columns are written only by bulk updates from
+ * {@link ru.practicum.shareit.booking.ItemBookingPointers}; {@code refreshAt} is the moment
+ * the pointers go stale as time passes.
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingPointers {
+    @Column(name = "last_booking_start", insertable = false, updatable = false)
+    LocalDateTime lastStart;
+
+    @Column(name = "last_booking_end", insertable = false, updatable = false)
+    LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_start", insertable = false, updatable = false)
+    LocalDateTime nextStart;
+
+    @Column(name = "next_booking_end", insertable = false, updatable = false)
+    LocalDateTime nextEnd;
+
+    @Column(name = "booking_pointers_refresh_at", insertable = false, updatable = false)
+    LocalDateTime refreshAt;
+}
@@ -1,11 +1,14 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
@@ -14,10 +17,73 @@ public interface ItemRepository extends JpaRepository<Item, Integer> {
 
     List<Item> findAllByRequestId(Integer requestId);
 
+    List<Item> findAllByIdGreaterThanOrderById(Integer id, Limit limit);
+
+    @Query("SELECT COUNT(i) AS count, COALESCE(MAX(i.id), 0) AS maxId, COALESCE(SUM(i.version), 0) AS versionSum " +
+            "FROM Item i")
+    Fingerprint findFingerprint();
+
     @Query("select i from Item i where i.requestId in :requestIds")
     List<Item> findAllByRequestIds(@Param("requestIds") List<Integer> requestIds);
 
-    @Query("SELECT it from Item it WHERE LOWER(it.name) like LOWER(CONCAT('%', :text, '%')) or LOWER(it.description) like LOWER(CONCAT('%', :text, '%'))")
-    List<Item> findAllByNameOrDescriptionContaining(@Param("text") String text, PageRequest pageRequest);
+    @Query("SELECT i.id FROM Item i WHERE i.bookingPointers.refreshAt <= :now ORDER BY i.bookingPointers.refreshAt")
+    List<Integer> findIdsWithStaleBookingPointers(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.bookingPointers.lastStart = :lastStart, i.bookingPointers.lastEnd = :lastEnd, " +
+            "i.bookingPointers.nextStart = :nextStart, i.bookingPointers.nextEnd = :nextEnd, " +
+            "i.bookingPointers.refreshAt = :refreshAt WHERE i.id = :itemId")
+    void updateBookingPointers(@Param("itemId") Integer itemId,
+                               @Param("lastStart") LocalDateTime lastStart,
+                               @Param("lastEnd") LocalDateTime lastEnd,
+                               @Param("nextStart") LocalDateTime nextStart,
+                               @Param("nextEnd") LocalDateTime nextEnd,
+                               @Param("refreshAt") LocalDateTime refreshAt);
+
+    @Modifying
+    @Query("UPDATE Item i SET " +
+            "i.bookingPointers.nextEnd = CASE WHEN i.bookingPointers.nextStart IS NULL OR i.bookingPointers.nextStart > :start " +
+            "THEN :end ELSE i.bookingPointers.nextEnd END, " +
+            "i.bookingPointers.nextStart = CASE WHEN i.bookingPointers.nextStart IS NULL OR i.bookingPointers.nextStart > :start " +
+            "THEN :start ELSE i.bookingPointers.nextStart END, " +
+            "i.bookingPointers.refreshAt = CASE WHEN i.bookingPointers.refreshAt IS NULL OR i.bookingPointers.refreshAt > :start " +
+            "THEN :start ELSE i.bookingPointers.refreshAt END " +
+            "WHERE i.id = :itemId")
+    void offerNextBooking(@Param("itemId") Integer itemId,
+                          @Param("start") LocalDateTime start,
+                          @Param("end") LocalDateTime end);
+
+    @Query("SELECT it.id from Item it WHERE it.available = true AND (LOWER(it.name) like LOWER(CONCAT('%', :text, '%')) " +
+            "or LOWER(it.description) like LOWER(CONCAT('%', :text, '%'))) ORDER BY it.id")
+    List<Integer> findAvailableIdsByNameOrDescriptionContaining(@Param("text") String text, Pageable page);
+
+    @Query("SELECT it.id AS id, it.available AS available, it.requestId AS requestId, it.owner.id AS ownerId " +
+            "FROM Item it WHERE LOWER(it.name) like LOWER(CONCAT('%', :text, '%')) " +
+            "or LOWER(it.description) like LOWER(CONCAT('%', :text, '%')) ORDER BY it.id")
+    List<SearchMatch> findSearchMatchesByNameOrDescriptionContaining(@Param("text") String text);
+
+    /**
+     * Summary of the items table that changes with every insert, delete and entity update of an item.
+     */
+    interface Fingerprint {
+        Long getCount();
+
+        Integer getMaxId();
+
+        Long getVersionSum();
+    }
+
+    /**
+     * Facet values of an item matching a search, available or not.
+     */
+    interface SearchMatch {
+        Integer getId();
+
+        Boolean getAvailable();
+
+        Integer getRequestId();
+
+        Integer getOwnerId();
+    }
 
 }
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Facet counts of one search, filled by the engine in the same pass that collects the page of hits.
+ * Availability counts every matching item. Request and owner counts only cover the available ones,
+ * which are the items the result pages go through.
+ *
+ * <p>All counters are plain ints. Owners are counted in an open-addressing table of owner ids, so
+ * counting a hit does not allocate.
+ */
+public final class FacetCounts {
+    private static final Comparator<OwnerCount> RANK = Comparator.comparingInt(OwnerCount::items)
+            .thenComparing(Comparator.comparingInt(OwnerCount::ownerId).reversed());
+
+    private int available;
+    private int unavailable;
+    private int withRequest;
+    private int[] ownerIds = new int[16];
+    private int[] ownerItems = new int[16];
+    private int owners;
+
+    public void addAvailable(boolean hasRequest, int ownerId) {
+        available++;
+        if (hasRequest) {
+            withRequest++;
+        }
+        int slot = slot(ownerIds, ownerItems, ownerId);
+        if (ownerItems[slot]++ == 0) {
+            ownerIds[slot] = ownerId;
+            if (++owners * 2 > ownerIds.length) {
+                grow();
+            }
+        }
+    }
+
+    public void addUnavailable(int count) {
+        unavailable += count;
+    }
+
+    public int available() {
+        return available;
+    }
+
+    public int unavailable() {
+        return unavailable;
+    }
+
+    public int withRequest() {
+        return withRequest;
+    }
+
+    public int withoutRequest() {
+        return available - withRequest;
+    }
+
+    /**
+     * Up to {@code limit} owners with the most available matches, ties by owner id.
+     */
+    public List<OwnerCount> topOwners(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<OwnerCount> top = new PriorityQueue<>(limit + 1, RANK);
+        for (int slot = 0; slot < ownerIds.length; slot++) {
+            if (ownerItems[slot] > 0) {
+                top.add(new OwnerCount(ownerIds[slot], ownerItems[slot]));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<OwnerCount> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(top.poll());
+        }
+        return result.reversed();
+    }
+
+    private void grow() {
+        int[] oldIds = ownerIds;
+        int[] oldItems = ownerItems;
+        ownerIds = new int[oldIds.length * 2];
+        ownerItems = new int[oldItems.length * 2];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldItems[i] > 0) {
+                int slot = slot(ownerIds, ownerItems, oldIds[i]);
+                ownerIds[slot] = oldIds[i];
+                ownerItems[slot] = oldItems[i];
+            }
+        }
+    }
+
+    /**
+     * Slot holding the owner, or the empty slot where it belongs. Empty slots have no items.
+     */
+    private static int slot(int[] ids, int[] items, int ownerId) {
+        int mask = ids.length - 1;
+        int hash = ownerId * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (items[slot] > 0 && ids[slot] != ownerId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public record OwnerCount(int ownerId, int items) {
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL search over the generated {@code items.search_vector} column and its GIN index,
+ * which is partial and only covers available items.
+ * Every word of the text has to be a prefix of a word of the item's name or description.
+ * Matches are ranked with {@code ts_rank}, name matches weighing more than description matches.
+ *
+ * <p>Searching with facets also reads the unavailable matches, through a second partial index over
+ * unavailable items. Each half of the condition implies the predicate of one index, so the
+ * planner combines both with a bitmap OR instead of scanning the table.
+ */
+@Component
+@ConditionalOnExpression("'${spring.sql.init.platform:}' == 'postgresql' " +
+        "and '${shareit.items.search.engine:database}' == 'database'")
+public class FullTextItemSearch implements ItemSearch {
+    private static final String SEARCH = "SELECT i.id FROM items i, to_tsquery('simple', ?) q " +
+            "WHERE i.available AND i.search_vector @@ q ORDER BY ts_rank(i.search_vector, q) DESC, i.id LIMIT ? OFFSET ?";
+    private static final String SEARCH_WITH_FACETS = "SELECT i.id, i.available, i.request_id IS NOT NULL AS has_request, " +
+            "i.user_id FROM items i, to_tsquery('simple', ?) q " +
+            "WHERE (i.available AND i.search_vector @@ q) OR (NOT i.available AND i.search_vector @@ q) " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TextAnalyzer analyzer;
+
+    public FullTextItemSearch(JdbcTemplate jdbcTemplate, TextAnalyzer analyzer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.analyzer = analyzer;
+    }
+
+    @Override
+    public List<Integer> search(String text, Pageable page) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(SEARCH, Integer.class, query, page.getPageSize(), page.getOffset());
+    }
+
+    @Override
+    public List<Integer> search(String text, Pageable page, FacetCounts facets) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> ids = new ArrayList<>(page.getPageSize());
+        int before = facets.available();
+        RowCallbackHandler collect = rs -> {
+            if (!rs.getBoolean("available")) {
+                facets.addUnavailable(1);
+                return;
+            }
+            facets.addAvailable(rs.getBoolean("has_request"), rs.getInt("user_id"));
+            if (facets.available() - before > page.getOffset() && ids.size() < page.getPageSize()) {
+                ids.add(rs.getInt("id"));
+            }
+        };
+        jdbcTemplate.query(SEARCH_WITH_FACETS, collect, query);
+        return ids;
+    }
+
+    /**
+     * Turns free text into a {@code to_tsquery} expression of prefix terms joined with AND. The
+     * terms come from the {@link TextAnalyzer}, whose stems are prefixes of the inflected forms in
+     * the unstemmed search vector. They only contain letters and digits, never tsquery operators.
+     */
+    String toTsQuery(String text) {
+        return analyzer.analyze(text).stream()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Finds available items whose names are close to a possibly misspelled search text.
+ */
+public interface FuzzyItemSearch {
+
+    /**
+     * Returns the ids of one page of matching items, most similar names first.
+     */
+    List<Integer> search(String text, Pageable page);
+
+    /**
+     * Called after an item is created or updated. Engines reading the database directly ignore it.
+     */
+    default void index(Item item) {
+    }
+
+    /**
+     * Called after an item is deleted.
+     */
+    default void remove(Integer itemId) {
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Base of the engines that keep their own copy of the items in memory. The copy is loaded from
+ * {@link ItemRepository} on startup and kept current by the item service through {@link #index} and
+ * {@link #remove}. A change made inside a transaction is only applied once the transaction commits,
+ * so the copy never holds a change that was rolled back.
+ */
+public abstract class InMemoryItemEngine {
+    private static final int LOAD_BATCH = 1000;
+
+    protected final ItemRepository itemRepository;
+
+    protected InMemoryItemEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    /**
+     * Called after an item is created or updated.
+     */
+    public void index(Item item) {
+        afterCommit(() -> put(item));
+    }
+
+    /**
+     * Called after an item is deleted.
+     */
+    public void remove(Integer itemId) {
+        afterCommit(() -> delete(itemId));
+    }
+
+    /**
+     * Applies the current state of an item, available or not.
+     */
+    protected abstract void put(Item item);
+
+    /**
+     * Drops an item that no longer exists.
+     */
+    protected abstract void delete(int itemId);
+
+    /**
+     * Passes every item to {@code action} in id order, reading them in batches.
+     */
+    protected void forEachItem(Consumer<Item> action) {
+        List<Item> batch = itemRepository.findAllByIdGreaterThanOrderById(0, Limit.of(LOAD_BATCH));
+        while (!batch.isEmpty()) {
+            batch.forEach(action);
+            batch = itemRepository.findAllByIdGreaterThanOrderById(batch.getLast().getId(), Limit.of(LOAD_BATCH));
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,636 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Item search served from an in-process inverted index, enabled with
+ * {@code shareit.items.search.engine=memory}. Matching follows {@link FullTextItemSearch}: every
+ * term of the text has to be a prefix of a term of the item's name or description, both sides
+ * analyzed by the {@link TextAnalyzer}. Results are
+ * ranked with BM25F, name matches weighing more. Like the partial index of the database engine,
+ * the ranked index only holds available items. Unavailable items are kept in a second index that
+ * is only used to count them for the search facets.
+ *
+ * <p>With {@code shareit.items.search.snapshot.dir} set, the index is also kept on disk by an
+ * {@link IndexSnapshotStore}: every committed change is appended to its delta, and the delta is
+ * folded into a new snapshot every {@code shareit.items.search.snapshot.delay} milliseconds and on
+ * shutdown. A start then loads the snapshot and replays the delta instead of reading all items,
+ * unless the restored items do not match the items table. Every item keeps its JPA version, and
+ * the count, the highest id and the sum of the versions are compared with the table, so a change
+ * made elsewhere or lost in a crash is noticed as well as a recreated database. When the delta
+ * cannot be written, the files are deleted so the next start goes back to the database.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.items.search.engine", havingValue = "memory")
+@Slf4j
+public class InMemoryItemSearch extends InMemoryItemEngine implements ItemSearch {
+    private final TextAnalyzer analyzer;
+    private final InvertedIndex index = new InvertedIndex();
+    private final InvertedIndex unavailableIndex = new InvertedIndex();
+    private final Timer rebuildTimer;
+    private final Timer snapshotTimer;
+    private IndexSnapshotStore snapshots;
+
+    public InMemoryItemSearch(ItemRepository itemRepository, TextAnalyzer analyzer,
+                              @Value("${shareit.items.search.snapshot.dir:}") String snapshotDir,
+                              MeterRegistry registry) {
+        super(itemRepository);
+        this.analyzer = analyzer;
+        if (!snapshotDir.isBlank()) {
+            try {
+                this.snapshots = new IndexSnapshotStore(Path.of(snapshotDir), analyzer.describe());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        this.rebuildTimer = Timer.builder("items.search.index.rebuild").register(registry);
+        this.snapshotTimer = Timer.builder("items.search.index.snapshot").register(registry);
+        Gauge.builder("items.search.index.documents", index, InvertedIndex::documentCount).register(registry);
+        Gauge.builder("items.search.index.terms", index, InvertedIndex::termCount).register(registry);
+        Gauge.builder("items.search.index.memory", index, InvertedIndex::estimatedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        boolean fromSnapshot = rebuildTimer.record(() -> {
+            InvertedIndex loaded = new InvertedIndex();
+            InvertedIndex loadedUnavailable = new InvertedIndex();
+            boolean restored = loadSnapshot(loaded, loadedUnavailable);
+            if (!restored) {
+                forEachItem(item -> put(item.getAvailable() ? loaded : loadedUnavailable, item));
+            }
+            index.replaceWith(loaded);
+            unavailableIndex.replaceWith(loadedUnavailable);
+            return restored;
+        });
+        log.info("Indexed {} items for search from the {}", index.documentCount(), fromSnapshot ? "snapshot" : "database");
+        if (!fromSnapshot && snapshots != null) {
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * Folds the delta into a new snapshot, if anything changed since the last one.
+     */
+    @Scheduled(fixedDelayString = "${shareit.items.search.snapshot.delay:300000}")
+    public synchronized void compact() {
+        if (snapshots == null) {
+            return;
+        }
+        try {
+            if (snapshots.deltaSize() > 0) {
+                writeSnapshot();
+            }
+        } catch (IOException e) {
+            log.warn("Could not read the size of the search index delta", e);
+        }
+    }
+
+    @PreDestroy
+    synchronized void shutdown() throws IOException {
+        compact();
+        if (snapshots != null) {
+            snapshots.close();
+        }
+    }
+
+    @Override
+    public List<Integer> search(String text, Pageable page) {
+        return index.search(analyzer.analyze(text), page.getOffset(), page.getPageSize());
+    }
+
+    @Override
+    public List<Integer> search(String text, Pageable page, FacetCounts facets) {
+        List<String> terms = analyzer.analyze(text);
+        facets.addUnavailable(unavailableIndex.count(terms));
+        return index.search(terms, page.getOffset(), page.getPageSize(), facets);
+    }
+
+    @Override
+    protected synchronized void put(Item item) {
+        (item.getAvailable() ? unavailableIndex : index).remove(item.getId());
+        put(item.getAvailable() ? index : unavailableIndex, item);
+        append(item.getId());
+    }
+
+    @Override
+    protected synchronized void delete(int itemId) {
+        index.remove(itemId);
+        unavailableIndex.remove(itemId);
+        append(itemId);
+    }
+
+    /**
+     * Appends the item to the delta as it is now in the index. Changes reach the index only after
+     * their transaction commits, and both steps run under the same lock, so the delta has the
+     * committed changes in the order the index saw them.
+     */
+    private void append(int itemId) {
+        if (snapshots == null) {
+            return;
+        }
+        try {
+            Document document = index.document(itemId);
+            if (document != null) {
+                snapshots.appendPut(itemId, true, document);
+            } else if ((document = unavailableIndex.document(itemId)) != null) {
+                snapshots.appendPut(itemId, false, document);
+            } else {
+                snapshots.appendRemove(itemId);
+            }
+        } catch (IOException e) {
+            dropSnapshots(e);
+        }
+    }
+
+    private void put(InvertedIndex target, Item item) {
+        target.put(item.getId(), item.getVersion(), item.getOwner().getId(), item.getRequestId() != null,
+                analyzer.analyze(item.getName()), descriptionTerms(item));
+    }
+
+    private boolean loadSnapshot(InvertedIndex available, InvertedIndex unavailable) {
+        if (snapshots == null) {
+            return false;
+        }
+        try {
+            InvertedIndex restored = new InvertedIndex();
+            InvertedIndex restoredUnavailable = new InvertedIndex();
+            int replayed = snapshots.load(restored, restoredUnavailable);
+            if (replayed < 0) {
+                return false;
+            }
+            if (!matchesDatabase(restored, restoredUnavailable)) {
+                log.info("The search index snapshot does not match the items table, indexing from the database");
+                return false;
+            }
+            available.replaceWith(restored);
+            unavailable.replaceWith(restoredUnavailable);
+            log.info("Loaded the search index snapshot and replayed {} changes", replayed);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load the search index snapshot, indexing from the database", e);
+            return false;
+        }
+    }
+
+    private boolean matchesDatabase(InvertedIndex available, InvertedIndex unavailable) {
+        ItemRepository.Fingerprint items = itemRepository.findFingerprint();
+        return available.documentCount() + unavailable.documentCount() == items.getCount()
+                && Math.max(available.maxItemId(), unavailable.maxItemId()) == items.getMaxId()
+                && available.versionSum() + unavailable.versionSum() == items.getVersionSum();
+    }
+
+    private void writeSnapshot() {
+        try {
+            snapshotTimer.recordCallable(() -> {
+                snapshots.write(index, unavailableIndex);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Could not write the search index snapshot", e);
+        }
+    }
+
+    private void dropSnapshots(IOException cause) {
+        log.warn("Could not append to the search index delta, the snapshot is deleted", cause);
+        try {
+            snapshots.discard();
+        } catch (IOException e) {
+            log.warn("Could not delete the search index snapshot", e);
+        }
+        snapshots = null;
+    }
+
+    private List<String> descriptionTerms(Item item) {
+        return item.getDescription() == null ? List.of() : analyzer.analyze(item.getDescription());
+    }
+
+    /**
+     * Term dictionary sorted for prefix lookups, each term pointing to the sorted ids of the items
+     * containing it. Every item keeps its terms with their frequencies in the name and description,
+     * so it can be scored, re-indexed or removed without scanning the dictionary.
+     *
+     * <p>Matches are ranked with BM25F: term frequencies of the name count {@link #NAME_BOOST} times,
+     * each field normalized by its length against the average. Document frequencies and field
+     * length totals are updated with every put and remove. A query word expanding to several terms
+     * scores with its best term.
+     *
+     * <p>Items also keep their owner and whether they answer a request, so the facets of a search
+     * are counted while its matches are scored.
+     */
+    static final class InvertedIndex {
+        static final double K1 = 1.2;
+        static final double B = 0.75;
+        static final double NAME_BOOST = 3.0;
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private NavigableMap<String, Postings> postings = new TreeMap<>();
+        private Map<Integer, Document> documents = new HashMap<>();
+        private long nameLengthTotal;
+        private long descriptionLengthTotal;
+
+        void put(int itemId, int version, int ownerId, boolean hasRequest,
+                 List<String> nameTerms, List<String> descriptionTerms) {
+            put(itemId, new Document(version, ownerId, hasRequest, nameTerms, descriptionTerms));
+        }
+
+        void put(int itemId, Document document) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(itemId);
+                for (String term : document.terms) {
+                    postings.computeIfAbsent(term, t -> new Postings()).add(itemId);
+                }
+                documents.put(itemId, document);
+                nameLengthTotal += document.nameLength;
+                descriptionLengthTotal += document.descriptionLength;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(int itemId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void replaceWith(InvertedIndex loaded) {
+            lock.writeLock().lock();
+            try {
+                postings = loaded.postings;
+                documents = loaded.documents;
+                nameLengthTotal = loaded.nameLengthTotal;
+                descriptionLengthTotal = loaded.descriptionLengthTotal;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Integer> search(List<String> queryTerms, long offset, int limit) {
+            return search(queryTerms, offset, limit, null);
+        }
+
+        /**
+         * Ids of the items matching every query term as a prefix, best scoring first and ties by id.
+         * Only the best {@code offset + limit} matches are kept while scoring. Every match is
+         * counted into {@code facets} as available, unless it is {@code null}.
+         */
+        List<Integer> search(List<String> queryTerms, long offset, int limit, FacetCounts facets) {
+            if (queryTerms.isEmpty()) {
+                return List.of();
+            }
+            lock.readLock().lock();
+            try {
+                List<List<Map.Entry<String, Postings>>> expansions = new ArrayList<>();
+                int[] matches = matches(queryTerms, expansions);
+                return matches.length == 0 ? List.of() : topK(matches, expansions, offset, limit, facets);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Number of items matching every query term as a prefix, without scoring them.
+         */
+        int count(List<String> queryTerms) {
+            if (queryTerms.isEmpty()) {
+                return 0;
+            }
+            lock.readLock().lock();
+            try {
+                return matches(queryTerms, new ArrayList<>()).length;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int documentCount() {
+            return documents.size();
+        }
+
+        Document document(int itemId) {
+            lock.readLock().lock();
+            try {
+                return documents.get(itemId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * The highest indexed item id, or 0 when the index is empty.
+         */
+        int maxItemId() {
+            lock.readLock().lock();
+            try {
+                return documents.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long versionSum() {
+            lock.readLock().lock();
+            try {
+                return documents.values().stream().mapToLong(document -> document.version).sum();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * The sorted term dictionary and the documents in item id order, read under one lock.
+         * Documents never change once built, so the copy can be written out without holding it.
+         */
+        Contents contents() {
+            lock.readLock().lock();
+            try {
+                String[] terms = postings.keySet().toArray(String[]::new);
+                int[] itemIds = documents.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+                Document[] sorted = new Document[itemIds.length];
+                for (int i = 0; i < itemIds.length; i++) {
+                    sorted[i] = documents.get(itemIds[i]);
+                }
+                return new Contents(terms, itemIds, sorted);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int termCount() {
+            return postings.size();
+        }
+
+        /**
+         * Rough heap footprint: posting arrays, term characters and per-entry overhead of the maps.
+         */
+        long estimatedBytes() {
+            lock.readLock().lock();
+            try {
+                long bytes = 0;
+                for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                    bytes += 40L + 2L * entry.getKey().length() + 16L + 4L * entry.getValue().ids.length + 40L;
+                }
+                for (Document document : documents.values()) {
+                    bytes += 80L + 12L * document.terms.length;
+                }
+                return bytes;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Sorted ids of the items matching every distinct query term, adding the dictionary terms
+         * each query term expands to into {@code expansions}.
+         */
+        private int[] matches(List<String> queryTerms, List<List<Map.Entry<String, Postings>>> expansions) {
+            int[] matches = null;
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                List<Map.Entry<String, Postings>> expansion = List.copyOf(prefixRange(term).entrySet());
+                int[] ids = union(expansion);
+                matches = matches == null ? ids : intersect(matches, ids);
+                if (matches.length == 0) {
+                    return matches;
+                }
+                expansions.add(expansion);
+            }
+            return matches;
+        }
+
+        private List<Integer> topK(int[] matches, List<List<Map.Entry<String, Postings>>> expansions,
+                                   long offset, int limit, FacetCounts facets) {
+            long wanted = Math.min(offset + limit, matches.length);
+            if (offset >= wanted && facets == null) {
+                return List.of();
+            }
+            double documentCount = documents.size();
+            double averageName = Math.max(1.0, nameLengthTotal / documentCount);
+            double averageDescription = Math.max(1.0, descriptionLengthTotal / documentCount);
+            PriorityQueue<Hit> heap = new PriorityQueue<>((int) wanted + 1, Hit.RANK.reversed());
+            for (int itemId : matches) {
+                Document document = documents.get(itemId);
+                if (facets != null) {
+                    facets.addAvailable(document.hasRequest, document.ownerId);
+                }
+                if (offset >= wanted) {
+                    continue;
+                }
+                double score = 0;
+                for (List<Map.Entry<String, Postings>> expansion : expansions) {
+                    double best = 0;
+                    for (Map.Entry<String, Postings> entry : expansion) {
+                        int position = Arrays.binarySearch(document.terms, entry.getKey());
+                        if (position < 0) {
+                            continue;
+                        }
+                        double idf = Math.log(1 + (documentCount - entry.getValue().size + 0.5) / (entry.getValue().size + 0.5));
+                        double tf = NAME_BOOST * document.nameTf[position]
+                                / (1 - B + B * document.nameLength / averageName)
+                                + document.descriptionTf[position]
+                                / (1 - B + B * document.descriptionLength / averageDescription);
+                        best = Math.max(best, idf * tf / (K1 + tf));
+                    }
+                    score += best;
+                }
+                heap.add(new Hit(itemId, score));
+                if (heap.size() > wanted) {
+                    heap.poll();
+                }
+            }
+            if (offset >= wanted) {
+                return List.of();
+            }
+            Integer[] ranked = new Integer[heap.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = heap.poll().itemId;
+            }
+            return Arrays.asList(ranked).subList((int) offset, ranked.length);
+        }
+
+        private void removeLocked(int itemId) {
+            Document document = documents.remove(itemId);
+            if (document == null) {
+                return;
+            }
+            nameLengthTotal -= document.nameLength;
+            descriptionLengthTotal -= document.descriptionLength;
+            for (String term : document.terms) {
+                Postings ids = postings.get(term);
+                ids.remove(itemId);
+                if (ids.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        private NavigableMap<String, Postings> prefixRange(String prefix) {
+            return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+
+        private static int[] union(List<Map.Entry<String, Postings>> expansion) {
+            if (expansion.size() == 1) {
+                Postings only = expansion.getFirst().getValue();
+                return Arrays.copyOf(only.ids, only.size);
+            }
+            int total = 0;
+            for (Map.Entry<String, Postings> entry : expansion) {
+                total += entry.getValue().size;
+            }
+            int[] merged = new int[total];
+            int position = 0;
+            for (Map.Entry<String, Postings> entry : expansion) {
+                System.arraycopy(entry.getValue().ids, 0, merged, position, entry.getValue().size);
+                position += entry.getValue().size;
+            }
+            return Arrays.stream(merged).sorted().distinct().toArray();
+        }
+
+        private static int[] intersect(int[] left, int[] right) {
+            int[] result = new int[Math.min(left.length, right.length)];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < left.length && j < right.length) {
+                if (left[i] < right[j]) {
+                    i++;
+                } else if (left[i] > right[j]) {
+                    j++;
+                } else {
+                    result[size++] = left[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+    }
+
+    /**
+     * Distinct terms of one item in sorted order, with their frequencies in each field, the item's
+     * facet values and the JPA version it was indexed at.
+     */
+    static final class Document {
+        final int version;
+        final int ownerId;
+        final boolean hasRequest;
+        final String[] terms;
+        final int[] nameTf;
+        final int[] descriptionTf;
+        final int nameLength;
+        final int descriptionLength;
+
+        Document(int version, int ownerId, boolean hasRequest, String[] terms, int[] nameTf, int[] descriptionTf) {
+            this.version = version;
+            this.ownerId = ownerId;
+            this.hasRequest = hasRequest;
+            this.terms = terms;
+            this.nameTf = nameTf;
+            this.descriptionTf = descriptionTf;
+            this.nameLength = Arrays.stream(nameTf).sum();
+            this.descriptionLength = Arrays.stream(descriptionTf).sum();
+        }
+
+        Document(int version, int ownerId, boolean hasRequest, List<String> nameTerms, List<String> descriptionTerms) {
+            this.version = version;
+            this.ownerId = ownerId;
+            this.hasRequest = hasRequest;
+            terms = Stream.concat(nameTerms.stream(), descriptionTerms.stream())
+                    .distinct()
+                    .sorted()
+                    .toArray(String[]::new);
+            nameTf = new int[terms.length];
+            descriptionTf = new int[terms.length];
+            nameTerms.forEach(term -> nameTf[Arrays.binarySearch(terms, term)]++);
+            descriptionTerms.forEach(term -> descriptionTf[Arrays.binarySearch(terms, term)]++);
+            nameLength = nameTerms.size();
+            descriptionLength = descriptionTerms.size();
+        }
+    }
+
+    record Contents(String[] terms, int[] itemIds, Document[] documents) {
+    }
+
+    private record Hit(int itemId, double score) {
+        private static final Comparator<Hit> RANK = Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparingInt(Hit::itemId);
+    }
+
+    /**
+     * Sorted item ids of one term. Ids usually arrive in ascending order, which makes adding an append.
+     */
+    static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void forEach(IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(ids[i]);
+            }
+        }
+    }
+}
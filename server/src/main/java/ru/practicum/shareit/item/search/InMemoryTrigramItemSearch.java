@@ -0,0 +1,292 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fuzzy search over an in-process trigram index of item names, used where {@code pg_trgm} is not
+ * available (H2, or the in-memory search engine). Trigrams and the threshold follow
+ * {@link TrigramItemSearch}, with whole words standing in for {@code pg_trgm}'s word extents.
+ */
+@Component
+@ConditionalOnExpression("'${spring.sql.init.platform:}' != 'postgresql' " +
+        "or '${shareit.items.search.engine:database}' != 'database'")
+@Slf4j
+public class InMemoryTrigramItemSearch extends InMemoryItemEngine implements FuzzyItemSearch {
+    private final TrigramIndex index;
+
+    public InMemoryTrigramItemSearch(ItemRepository itemRepository,
+                                     @Value("${shareit.items.search.fuzzy.threshold:0.3}") double threshold,
+                                     MeterRegistry registry) {
+        super(itemRepository);
+        this.index = new TrigramIndex(threshold);
+        Gauge.builder("items.search.trigrams.words", index, TrigramIndex::wordCount).register(registry);
+        Gauge.builder("items.search.trigrams.trigrams", index, TrigramIndex::trigramCount).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        TrigramIndex loaded = new TrigramIndex(index.threshold);
+        forEachItem(item -> {
+            if (item.getAvailable()) {
+                loaded.put(item.getId(), item.getName());
+            }
+        });
+        index.replaceWith(loaded);
+        log.info("Indexed the names of {} items for fuzzy search", index.itemCount());
+    }
+
+    @Override
+    public List<Integer> search(String text, Pageable page) {
+        return index.search(text, page.getOffset(), page.getPageSize());
+    }
+
+    @Override
+    protected void put(Item item) {
+        if (item.getAvailable()) {
+            index.put(item.getId(), item.getName());
+        } else {
+            index.remove(item.getId());
+        }
+    }
+
+    @Override
+    protected void delete(int itemId) {
+        index.remove(itemId);
+    }
+
+    /**
+     * Trigrams of each word as {@code pg_trgm} builds them: the word is padded with two spaces in
+     * front and one behind, so "drill" gives "  d", " dr", "dri", "ril", "ill" and "ll ".
+     */
+    static Set<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Distinct name words with trigram postings of word ids, and the items of each word.
+     *
+     * <p>A query word scores against a name word by the share of its trigrams found there, as
+     * {@code word_similarity} does, with the trigram similarity of the two words breaking ties.
+     * An item scores the mean, over the query words, of its best scoring name word, and matches
+     * when that mean reaches the threshold.
+     */
+    static final class TrigramIndex {
+        private final double threshold;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private Map<String, InMemoryItemSearch.Postings> wordsByTrigram = new HashMap<>();
+        private Map<String, Word> words = new HashMap<>();
+        private Map<Integer, Word> wordsById = new HashMap<>();
+        private Map<Integer, String[]> itemWords = new HashMap<>();
+        private int nextWordId;
+
+        TrigramIndex(double threshold) {
+            this.threshold = threshold;
+        }
+
+        void put(int itemId, String name) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(itemId);
+                String[] terms = new LinkedHashSet<>(TextAnalyzer.tokenize(name)).toArray(String[]::new);
+                for (String term : terms) {
+                    Word word = words.get(term);
+                    if (word == null) {
+                        word = new Word(nextWordId++, term);
+                        words.put(term, word);
+                        wordsById.put(word.id, word);
+                        for (String trigram : word.trigrams) {
+                            wordsByTrigram.computeIfAbsent(trigram, t -> new InMemoryItemSearch.Postings()).add(word.id);
+                        }
+                    }
+                    word.items.add(itemId);
+                }
+                itemWords.put(itemId, terms);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(int itemId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void replaceWith(TrigramIndex loaded) {
+            lock.writeLock().lock();
+            try {
+                wordsByTrigram = loaded.wordsByTrigram;
+                words = loaded.words;
+                wordsById = loaded.wordsById;
+                itemWords = loaded.itemWords;
+                nextWordId = loaded.nextWordId;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Integer> search(String text, long offset, int limit) {
+            List<String> queryWords = List.copyOf(new LinkedHashSet<>(TextAnalyzer.tokenize(text)));
+            if (queryWords.isEmpty()) {
+                return List.of();
+            }
+            Map<Integer, Score> scores = new HashMap<>();
+            lock.readLock().lock();
+            try {
+                for (int q = 0; q < queryWords.size(); q++) {
+                    scoreItems(queryWords.get(q), q, queryWords.size(), scores);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            List<Score> ranked = new ArrayList<>();
+            for (Score score : scores.values()) {
+                if (score.mean() >= threshold) {
+                    ranked.add(score);
+                }
+            }
+            ranked.sort(Score.RANK);
+            List<Integer> page = new ArrayList<>(limit);
+            for (long i = offset; i < ranked.size() && page.size() < limit; i++) {
+                page.add(ranked.get((int) i).itemId);
+            }
+            return page;
+        }
+
+        int itemCount() {
+            return itemWords.size();
+        }
+
+        int wordCount() {
+            return words.size();
+        }
+
+        int trigramCount() {
+            return wordsByTrigram.size();
+        }
+
+        private void scoreItems(String queryWord, int position, int queryLength, Map<Integer, Score> scores) {
+            Set<String> queryTrigrams = trigrams(queryWord);
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                InMemoryItemSearch.Postings wordIds = wordsByTrigram.get(trigram);
+                if (wordIds != null) {
+                    wordIds.forEach(wordId -> shared.merge(wordId, 1, Integer::sum));
+                }
+            }
+            shared.forEach((wordId, common) -> {
+                Word word = wordsById.get(wordId);
+                double coverage = (double) common / queryTrigrams.size();
+                double similarity = (double) common / (queryTrigrams.size() + word.trigrams.size() - common);
+                word.items.forEach(itemId -> scores
+                        .computeIfAbsent(itemId, id -> new Score(id, queryLength))
+                        .offer(position, coverage, similarity));
+            });
+        }
+
+        private void removeLocked(int itemId) {
+            String[] terms = itemWords.remove(itemId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Word word = words.get(term);
+                word.items.remove(itemId);
+                if (word.items.size() > 0) {
+                    continue;
+                }
+                words.remove(term);
+                wordsById.remove(word.id);
+                for (String trigram : word.trigrams) {
+                    InMemoryItemSearch.Postings wordIds = wordsByTrigram.get(trigram);
+                    wordIds.remove(word.id);
+                    if (wordIds.size() == 0) {
+                        wordsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Word {
+        private final int id;
+        private final Set<String> trigrams;
+        private final InMemoryItemSearch.Postings items = new InMemoryItemSearch.Postings();
+
+        private Word(int id, String text) {
+            this.id = id;
+            this.trigrams = trigrams(text);
+        }
+    }
+
+    /**
+     * Best coverage and similarity of an item's words for each query word.
+     */
+    private static final class Score {
+        private static final Comparator<Score> RANK = Comparator.comparingDouble(Score::mean).reversed()
+                .thenComparing(Comparator.comparingDouble(Score::meanSimilarity).reversed())
+                .thenComparingInt(score -> score.itemId);
+
+        private final int itemId;
+        private final double[] coverage;
+        private final double[] similarity;
+
+        private Score(int itemId, int queryLength) {
+            this.itemId = itemId;
+            this.coverage = new double[queryLength];
+            this.similarity = new double[queryLength];
+        }
+
+        void offer(int position, double wordCoverage, double wordSimilarity) {
+            if (wordCoverage > coverage[position]
+                    || wordCoverage == coverage[position] && wordSimilarity > similarity[position]) {
+                coverage[position] = wordCoverage;
+                similarity[position] = wordSimilarity;
+            }
+        }
+
+        double mean() {
+            double sum = 0;
+            for (double value : coverage) {
+                sum += value;
+            }
+            return sum / coverage.length;
+        }
+
+        double meanSimilarity() {
+            double sum = 0;
+            for (double value : similarity) {
+                sum += value;
+            }
+            return sum / similarity.length;
+        }
+    }
+}
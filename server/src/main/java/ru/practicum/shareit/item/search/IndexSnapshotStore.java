@@ -0,0 +1,332 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.search.InMemoryItemSearch.Contents;
+import ru.practicum.shareit.item.search.InMemoryItemSearch.Document;
+import ru.practicum.shareit.item.search.InMemoryItemSearch.InvertedIndex;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * On-disk copy of the {@link InMemoryItemSearch} indexes, so a restart does not have to read and
+ * analyze every item again. It consists of two files in one directory:
+ * <ul>
+ *     <li>{@code items.segment}, a snapshot of both indexes. Each index is stored as its sorted term
+ *     dictionary followed by its documents in item id order, every document listing its item version
+ *     and its term ordinals as ascending deltas with the term frequencies of both fields. Numbers are varints, and a CRC32
+ *     over the whole file comes last. The segment is memory-mapped to be read, and replaced by renaming
+ *     a complete new file over it.</li>
+ *     <li>{@code items.delta}, the changes since the snapshot, in the order they were applied. Each
+ *     record is framed by its length and followed by its CRC32, so a record torn by a crash ends the
+ *     replay and is cut off. Every record is forced to disk before the append returns.</li>
+ * </ul>
+ *
+ * <p>Records hold the resulting document of an item rather than an edit, so replaying a change the
+ * snapshot already contains does no harm. This keeps a crash between writing a snapshot and
+ * truncating the delta safe. Terms are stored analyzed: a segment written with other analyzer
+ * filters, or an older {@link #VERSION}, is ignored. Bump the version when the analysis itself
+ * changes, for example the stemming rules, or when the file layout does.
+ */
+final class IndexSnapshotStore implements Closeable {
+    static final String SEGMENT = "items.segment";
+    static final String DELTA = "items.delta";
+    static final int VERSION = 4;
+
+    private static final int MAGIC = 0x53484958;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final Path segmentPath;
+    private final Path deltaPath;
+    private final String analysis;
+    private FileChannel delta;
+
+    IndexSnapshotStore(Path directory, String analysis) throws IOException {
+        Files.createDirectories(directory);
+        this.segmentPath = directory.resolve(SEGMENT);
+        this.deltaPath = directory.resolve(DELTA);
+        this.analysis = analysis;
+    }
+
+    /**
+     * Reads the snapshot into the given empty indexes and replays the delta on top of them.
+     *
+     * @return the number of replayed changes, or -1 without a usable snapshot, in which case the
+     * indexes are left as they were and the delta is dropped
+     */
+    synchronized int load(InvertedIndex available, InvertedIndex unavailable) throws IOException {
+        if (!Files.exists(segmentPath) || !readSegment(available, unavailable)) {
+            openDelta().truncate(0);
+            return -1;
+        }
+        return replayDelta(available, unavailable);
+    }
+
+    /**
+     * Writes both indexes as the new snapshot and empties the delta. Callers have to keep the
+     * indexes from changing until this returns.
+     */
+    synchronized void write(InvertedIndex available, InvertedIndex unavailable) throws IOException {
+        Path temporary = segmentPath.resolveSibling(SEGMENT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CheckedOutputStream checked = new CheckedOutputStream(Channels.newOutputStream(channel), new CRC32());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, analysis);
+            writeIndex(out, available.contents());
+            writeIndex(out, unavailable.contents());
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, segmentPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileChannel channel = openDelta();
+        channel.truncate(0);
+        channel.force(true);
+    }
+
+    synchronized void appendPut(int itemId, boolean isAvailable, Document document) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT);
+        out.writeInt(itemId);
+        out.writeBoolean(isAvailable);
+        writeVarint(out, document.version);
+        writeVarint(out, document.ownerId);
+        out.writeBoolean(document.hasRequest);
+        writeVarint(out, document.terms.length);
+        for (int t = 0; t < document.terms.length; t++) {
+            writeString(out, document.terms[t]);
+            writeVarint(out, document.nameTf[t]);
+            writeVarint(out, document.descriptionTf[t]);
+        }
+        append(bytes.toByteArray());
+    }
+
+    synchronized void appendRemove(int itemId) throws IOException {
+        append(ByteBuffer.allocate(5).put(REMOVE).putInt(itemId).array());
+    }
+
+    synchronized long deltaSize() throws IOException {
+        return openDelta().size();
+    }
+
+    /**
+     * Deletes both files, so the next start loads the items from the database again.
+     */
+    synchronized void discard() throws IOException {
+        close();
+        Files.deleteIfExists(segmentPath);
+        Files.deleteIfExists(deltaPath);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (delta != null) {
+            delta.close();
+            delta = null;
+        }
+    }
+
+    private boolean readSegment(InvertedIndex available, InvertedIndex unavailable) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (segment.limit() < 16 || segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION) {
+                return false;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(segment.slice(0, segment.limit() - 8));
+            if (crc.getValue() != segment.getLong(segment.limit() - 8)) {
+                return false;
+            }
+            segment.position(8).limit(segment.limit() - 8);
+            if (!readString(segment).equals(analysis)) {
+                return false;
+            }
+            readIndex(segment, available);
+            readIndex(segment, unavailable);
+            return true;
+        }
+    }
+
+    private int replayDelta(InvertedIndex available, InvertedIndex unavailable) throws IOException {
+        FileChannel channel = openDelta();
+        ByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        int replayed = 0;
+        CRC32 crc = new CRC32();
+        while (records.remaining() >= 4) {
+            int start = records.position();
+            int length = records.getInt();
+            if (length <= 0 || records.remaining() < length + 4) {
+                records.position(start);
+                break;
+            }
+            ByteBuffer record = records.slice(records.position(), length);
+            crc.reset();
+            crc.update(record.duplicate());
+            records.position(records.position() + length);
+            if ((int) crc.getValue() != records.getInt()) {
+                records.position(start);
+                break;
+            }
+            apply(record, available, unavailable);
+            replayed++;
+        }
+        channel.truncate(records.position());
+        channel.position(records.position());
+        return replayed;
+    }
+
+    private static void apply(ByteBuffer record, InvertedIndex available, InvertedIndex unavailable) {
+        byte operation = record.get();
+        int itemId = record.getInt();
+        if (operation == REMOVE) {
+            available.remove(itemId);
+            unavailable.remove(itemId);
+            return;
+        }
+        boolean isAvailable = record.get() != 0;
+        int version = readVarint(record);
+        int ownerId = readVarint(record);
+        boolean hasRequest = record.get() != 0;
+        String[] terms = new String[readVarint(record)];
+        int[] nameTf = new int[terms.length];
+        int[] descriptionTf = new int[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            terms[t] = readString(record);
+            nameTf[t] = readVarint(record);
+            descriptionTf[t] = readVarint(record);
+        }
+        (isAvailable ? unavailable : available).remove(itemId);
+        (isAvailable ? available : unavailable).put(itemId,
+                new Document(version, ownerId, hasRequest, terms, nameTf, descriptionTf));
+    }
+
+    private void append(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(payload.length + 8)
+                .putInt(payload.length)
+                .put(payload)
+                .putInt((int) crc.getValue())
+                .flip();
+        FileChannel channel = openDelta();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        channel.force(false);
+    }
+
+    private FileChannel openDelta() throws IOException {
+        if (delta == null) {
+            delta = FileChannel.open(deltaPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            delta.position(delta.size());
+        }
+        return delta;
+    }
+
+    private static void writeIndex(DataOutputStream out, Contents contents) throws IOException {
+        String[] terms = contents.terms();
+        writeVarint(out, terms.length);
+        for (String term : terms) {
+            writeString(out, term);
+        }
+        writeVarint(out, contents.itemIds().length);
+        int previousId = 0;
+        for (int i = 0; i < contents.itemIds().length; i++) {
+            Document document = contents.documents()[i];
+            writeVarint(out, contents.itemIds()[i] - previousId);
+            previousId = contents.itemIds()[i];
+            writeVarint(out, document.version);
+            writeVarint(out, document.ownerId);
+            out.writeBoolean(document.hasRequest);
+            writeVarint(out, document.terms.length);
+            int previousOrdinal = 0;
+            for (int t = 0; t < document.terms.length; t++) {
+                int ordinal = Arrays.binarySearch(terms, document.terms[t]);
+                writeVarint(out, ordinal - previousOrdinal);
+                previousOrdinal = ordinal;
+                writeVarint(out, document.nameTf[t]);
+                writeVarint(out, document.descriptionTf[t]);
+            }
+        }
+    }
+
+    private static void readIndex(ByteBuffer in, InvertedIndex index) {
+        String[] terms = new String[readVarint(in)];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = readString(in);
+        }
+        int documentCount = readVarint(in);
+        int itemId = 0;
+        for (int i = 0; i < documentCount; i++) {
+            itemId += readVarint(in);
+            int version = readVarint(in);
+            int ownerId = readVarint(in);
+            boolean hasRequest = in.get() != 0;
+            String[] documentTerms = new String[readVarint(in)];
+            int[] nameTf = new int[documentTerms.length];
+            int[] descriptionTf = new int[documentTerms.length];
+            int ordinal = 0;
+            for (int t = 0; t < documentTerms.length; t++) {
+                ordinal += readVarint(in);
+                documentTerms[t] = terms[ordinal];
+                nameTf[t] = readVarint(in);
+                descriptionTf[t] = readVarint(in);
+            }
+            index.put(itemId, new Document(version, ownerId, hasRequest, documentTerms, nameTf, descriptionTf));
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[readVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Seven bits per byte, lowest first, the high bit set on every byte but the last.
+     */
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete over the names of available items. A name is suggested when the prefix matches
+ * the start of any of its words, so "dri" and "cordless dr" both suggest "Cordless drill". Names
+ * shared by more items come first. Enabled unless {@code shareit.items.suggest.enabled} is false.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.items.suggest.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ItemNameSuggester extends InMemoryItemEngine {
+    private final Dictionary dictionary = new Dictionary();
+
+    public ItemNameSuggester(ItemRepository itemRepository, MeterRegistry registry) {
+        super(itemRepository);
+        Gauge.builder("items.suggest.names", dictionary, Dictionary::nameCount).register(registry);
+        Gauge.builder("items.suggest.keys", dictionary, Dictionary::keyCount).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Dictionary loaded = new Dictionary();
+        forEachItem(item -> {
+            if (item.getAvailable()) {
+                loaded.put(item.getId(), item.getName());
+            }
+        });
+        dictionary.replaceWith(loaded);
+        log.info("Loaded {} item names for suggestions", dictionary.nameCount());
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        return dictionary.suggest(prefix, limit);
+    }
+
+    @Override
+    protected void put(Item item) {
+        if (item.getAvailable()) {
+            dictionary.put(item.getId(), item.getName());
+        } else {
+            dictionary.remove(item.getId());
+        }
+    }
+
+    @Override
+    protected void delete(int itemId) {
+        dictionary.remove(itemId);
+    }
+
+    /**
+     * Lower case, leading whitespace dropped and inner runs collapsed. Trailing whitespace is kept,
+     * so "drill " only matches names where "drill" is a whole word followed by another one.
+     */
+    static String normalize(String text) {
+        return text.stripLeading().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct names keyed by every suffix of the normalized name that starts a word. A prefix
+     * lookup is then a range scan of the sorted keys.
+     *
+     * <p>Prefixes of up to {@value #RANKED_PREFIX_LENGTH} characters match most of the names, so
+     * their best {@value #RANKED_NAMES} names are kept once scanned. A change to a name drops the
+     * kept rankings of the short prefixes of its keys, and the next lookup scans again.
+     */
+    static final class Dictionary {
+        static final int RANKED_PREFIX_LENGTH = 3;
+        static final int RANKED_NAMES = 50;
+        private static final Comparator<Name> RANK = Comparator.comparingInt((Name name) -> name.items)
+                .thenComparing(name -> name.normalized, Comparator.reverseOrder());
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private NavigableMap<String, List<Name>> keys = new TreeMap<>();
+        private Map<String, Name> names = new HashMap<>();
+        private Map<Integer, Name> namesByItem = new HashMap<>();
+        private Map<String, List<Name>> rankedByPrefix = new ConcurrentHashMap<>();
+
+        void put(int itemId, String name) {
+            String normalized = normalize(name).stripTrailing();
+            lock.writeLock().lock();
+            try {
+                Name previous = namesByItem.get(itemId);
+                if (previous != null && previous.normalized.equals(normalized)) {
+                    return;
+                }
+                removeLocked(itemId);
+                Name entry = names.get(normalized);
+                if (entry == null) {
+                    entry = new Name(normalized, name.strip());
+                    names.put(normalized, entry);
+                    for (String key : wordSuffixes(normalized)) {
+                        keys.computeIfAbsent(key, k -> new ArrayList<>(1)).add(entry);
+                    }
+                }
+                entry.items++;
+                dropRankings(entry);
+                namesByItem.put(itemId, entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(int itemId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void replaceWith(Dictionary loaded) {
+            lock.writeLock().lock();
+            try {
+                keys = loaded.keys;
+                names = loaded.names;
+                namesByItem = loaded.namesByItem;
+                rankedByPrefix = new ConcurrentHashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Up to {@code limit} names matching the prefix, most common first, then alphabetically.
+         */
+        List<String> suggest(String prefix, int limit) {
+            String normalized = normalize(prefix);
+            if (normalized.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            lock.readLock().lock();
+            try {
+                List<Name> ranked;
+                if (normalized.length() <= RANKED_PREFIX_LENGTH && limit <= RANKED_NAMES) {
+                    ranked = rankedByPrefix.get(normalized);
+                    if (ranked == null) {
+                        ranked = rank(normalized, RANKED_NAMES);
+                        rankedByPrefix.put(normalized, ranked);
+                    }
+                } else {
+                    ranked = rank(normalized, limit);
+                }
+                return ranked.stream()
+                        .limit(limit)
+                        .map(name -> name.display)
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int nameCount() {
+            return names.size();
+        }
+
+        int keyCount() {
+            return keys.size();
+        }
+
+        /**
+         * Up to {@code limit} names under the prefix, best first. Callers hold the read lock.
+         */
+        private List<Name> rank(String prefix, int limit) {
+            PriorityQueue<Name> top = new PriorityQueue<>(limit + 1, RANK);
+            Set<Name> seen = new HashSet<>();
+            for (List<Name> matching : keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                for (Name name : matching) {
+                    if (seen.add(name)) {
+                        top.add(name);
+                        if (top.size() > limit) {
+                            top.poll();
+                        }
+                    }
+                }
+            }
+            List<Name> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(top.poll());
+            }
+            return ranked.reversed();
+        }
+
+        private void dropRankings(Name entry) {
+            for (String key : wordSuffixes(entry.normalized)) {
+                for (int length = 1; length <= Math.min(RANKED_PREFIX_LENGTH, key.length()); length++) {
+                    rankedByPrefix.remove(key.substring(0, length));
+                }
+            }
+        }
+
+        private void removeLocked(int itemId) {
+            Name entry = namesByItem.remove(itemId);
+            if (entry == null) {
+                return;
+            }
+            entry.items--;
+            dropRankings(entry);
+            if (entry.items > 0) {
+                return;
+            }
+            names.remove(entry.normalized);
+            for (String key : wordSuffixes(entry.normalized)) {
+                List<Name> matching = keys.get(key);
+                matching.remove(entry);
+                if (matching.isEmpty()) {
+                    keys.remove(key);
+                }
+            }
+        }
+
+        private static List<String> wordSuffixes(String normalized) {
+            List<String> suffixes = new ArrayList<>();
+            for (int i = 0; i < normalized.length(); i++) {
+                boolean wordStart = Character.isLetterOrDigit(normalized.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1)));
+                if (wordStart) {
+                    suffixes.add(normalized.substring(i));
+                }
+            }
+            return suffixes;
+        }
+    }
+
+    private static final class Name {
+        private final String normalized;
+        private final String display;
+        private int items;
+
+        private Name(String normalized, String display) {
+            this.normalized = normalized;
+            this.display = display;
+        }
+    }
+}
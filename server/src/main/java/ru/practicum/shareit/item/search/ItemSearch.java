@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Finds available items whose name or description match a search text. Availability is part of
+ * the search itself, so every page except the last one is full.
+ */
+public interface ItemSearch {
+
+    /**
+     * Returns the ids of one page of matching items, best matches first.
+     */
+    List<Integer> search(String text, Pageable page);
+
+    /**
+     * Returns the same page, counting the facets of every matching item, available or not, into
+     * {@code facets} in the pass that collects it.
+     */
+    List<Integer> search(String text, Pageable page, FacetCounts facets);
+
+    /**
+     * Called after an item is created or updated. Engines reading the database directly ignore it.
+     */
+    default void index(Item item) {
+    }
+
+    /**
+     * Called after an item is deleted.
+     */
+    default void remove(Integer itemId) {
+    }
+}
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.text.Normalizer;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of search result pages keyed by normalized text and page. Entries are dropped
+ * least recently used first once {@code shareit.items.search.cache.max-entries} is reached, and
+ * after {@code shareit.items.search.cache.ttl-seconds}.
+ *
+ * <p>Writes to an item evict only the pages whose search terms all occur in the item's name or
+ * description, before or after the change. The terms come from the {@link TextAnalyzer}, and as its
+ * stems are prefixes of the words they came from, checking occurrence as a substring covers the
+ * stemmed prefix matching of the full-text engines as well as the substring matching of the LIKE engine.
+ */
+@Component
+public class ItemSearchCache {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final TextAnalyzer analyzer;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByWord = new HashMap<>();
+    private long invalidations;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+    private final Counter writeEvictions;
+
+    @Autowired
+    public ItemSearchCache(@Value("${shareit.items.search.cache.max-entries:10000}") int maxEntries,
+                           @Value("${shareit.items.search.cache.ttl-seconds:60}") long ttlSeconds,
+                           TextAnalyzer analyzer,
+                           MeterRegistry registry) {
+        this(maxEntries, ttlSeconds, Clock.systemUTC(), analyzer, registry);
+    }
+
+    ItemSearchCache(int maxEntries, long ttlSeconds, Clock clock, TextAnalyzer analyzer, MeterRegistry registry) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.clock = clock;
+        this.analyzer = analyzer;
+        this.hits = Counter.builder("items.search.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("items.search.cache.requests").tag("result", "miss").register(registry);
+        this.sizeEvictions = Counter.builder("items.search.cache.evictions").tag("cause", "size").register(registry);
+        this.expirations = Counter.builder("items.search.cache.evictions").tag("cause", "expired").register(registry);
+        this.writeEvictions = Counter.builder("items.search.cache.evictions").tag("cause", "write").register(registry);
+        Gauge.builder("items.search.cache.size", this, ItemSearchCache::size).register(registry);
+        Gauge.builder("items.search.cache.hit.ratio", this, ItemSearchCache::hitRatio).register(registry);
+    }
+
+    /**
+     * Returns the cached page or loads and caches it. A page loaded while an item write was
+     * evicting entries is returned but not cached, since it may predate that write.
+     */
+    public List<ItemDto> get(String text, int from, int size, Supplier<List<ItemDto>> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+        Key key = new Key(normalize(text), from, size);
+        long generation;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > clock.millis()) {
+                hits.increment();
+                return entry.items;
+            }
+            if (entry != null) {
+                expirations.increment();
+                removeLocked(key);
+            }
+            misses.increment();
+            generation = invalidations;
+        }
+        List<ItemDto> items = List.copyOf(loader.get());
+        synchronized (this) {
+            if (generation == invalidations) {
+                putLocked(key, new Entry(items, clock.millis() + ttlMillis));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Evicts the pages that may contain an item with the given texts, now and again once the
+     * current transaction completes, so a page read by a concurrent search before the commit is
+     * not kept either. Pass the texts from before and after the change.
+     */
+    public void evictMatching(String... texts) {
+        String haystack = String.join("\n", Arrays.stream(texts)
+                .filter(text -> text != null)
+                .map(text -> Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFKC))
+                .toList());
+        evictContainedWords(haystack);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evictContainedWords(haystack);
+            }
+        });
+    }
+
+    private synchronized void evictContainedWords(String haystack) {
+        invalidations++;
+        Set<Key> candidates = new HashSet<>();
+        keysByWord.forEach((word, keys) -> {
+            if (haystack.contains(word)) {
+                candidates.addAll(keys);
+            }
+        });
+        for (Key key : candidates) {
+            if (words(key.text).stream().allMatch(haystack::contains)) {
+                removeLocked(key);
+                writeEvictions.increment();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private void putLocked(Key key, Entry entry) {
+        removeLocked(key);
+        entries.put(key, entry);
+        for (String word : words(key.text)) {
+            keysByWord.computeIfAbsent(word, w -> new HashSet<>()).add(key);
+        }
+        Iterator<Key> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries) {
+            Key evicted = eldest.next();
+            eldest.remove();
+            unlinkWords(evicted);
+            sizeEvictions.increment();
+        }
+    }
+
+    private void removeLocked(Key key) {
+        if (entries.remove(key) != null) {
+            unlinkWords(key);
+        }
+    }
+
+    private void unlinkWords(Key key) {
+        for (String word : words(key.text)) {
+            Set<Key> keys = keysByWord.get(word);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByWord.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Lower case with runs of whitespace collapsed, so "Drill " and "drill" share a page.
+     */
+    static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Terms a page is evicted by. Text without any terms, such as punctuation or only stop words,
+     * is matched as a whole.
+     */
+    private List<String> words(String normalized) {
+        List<String> words = analyzer.analyze(normalized);
+        return words.isEmpty() ? List.of(normalized) : words;
+    }
+
+    private record Key(String text, int from, int size) {
+    }
+
+    private record Entry(List<ItemDto> items, long expiresAt) {
+    }
+}
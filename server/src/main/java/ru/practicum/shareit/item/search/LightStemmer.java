@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Set;
+
+/**
+ * Stop words and a light, suffix-stripping stemmer for Russian and English. Endings are only ever
+ * removed, never rewritten, so a stem stays a prefix of every form it came from and still
+ * prefix-matches unstemmed text such as the {@code simple} search vector in PostgreSQL.
+ */
+final class LightStemmer {
+    private static final int MIN_STEM = 3;
+
+    /**
+     * Case endings of Russian nouns and adjectives, longest first.
+     */
+    private static final String[] RUSSIAN_ENDINGS = {
+            "иями", "ями", "ами", "иях", "ого", "его", "ому", "ему", "ыми", "ими", "ией",
+            "ях", "ах", "ью", "ья", "ьи", "ье", "ев", "ов", "ей", "ой", "ий", "ый", "ая", "яя", "ое", "ее",
+            "ие", "ые", "ом", "ем", "ам", "ям", "ую", "юю", "ых", "их", "ию", "ия", "ии",
+            "а", "я", "о", "е", "и", "ы", "у", "ю", "ь", "й"
+    };
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "if", "in", "into", "is", "it",
+            "of", "on", "or", "that", "the", "their", "this", "to", "was", "with",
+            "а", "без", "в", "во", "да", "для", "до", "же", "за", "и", "из", "или", "к", "ко", "на", "над", "не",
+            "но", "о", "об", "от", "по", "под", "при", "с", "со", "у", "что");
+
+    private LightStemmer() {
+    }
+
+    static boolean isStopWord(String word) {
+        return STOP_WORDS.contains(word);
+    }
+
+    /**
+     * Strips one inflectional ending, chosen by the script of the word's last letter. Words of
+     * digits, or whose stem would get shorter than three letters, are returned unchanged.
+     */
+    static String stem(String word) {
+        char last = word.charAt(word.length() - 1);
+        if (Character.UnicodeBlock.of(last) == Character.UnicodeBlock.CYRILLIC) {
+            return stemRussian(word);
+        }
+        if (last >= 'a' && last <= 'z') {
+            return stemEnglish(word);
+        }
+        return word;
+    }
+
+    private static String stemRussian(String word) {
+        for (String ending : RUSSIAN_ENDINGS) {
+            if (word.endsWith(ending)) {
+                return strip(word, ending.length());
+            }
+        }
+        return word;
+    }
+
+    /**
+     * Plural and final "y" removal: "batteries" and "battery" both become "batter", "boxes" becomes
+     * "box", while "shoes" only loses its "s".
+     */
+    private static String stemEnglish(String word) {
+        if (word.endsWith("ies")) {
+            return strip(word, 3);
+        }
+        if (word.endsWith("sses") || word.endsWith("xes") || word.endsWith("zes")
+                || word.endsWith("ches") || word.endsWith("shes")) {
+            return strip(word, 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            return strip(word, 1);
+        }
+        if (word.endsWith("y")) {
+            return strip(word, 1);
+        }
+        return word;
+    }
+
+    private static String strip(String word, int ending) {
+        return word.length() - ending >= MIN_STEM ? word.substring(0, word.length() - ending) : word;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Substring search for databases without full-text support, such as H2 in the test profile.
+ */
+@Component
+@ConditionalOnExpression("'${spring.sql.init.platform:}' != 'postgresql' " +
+        "and '${shareit.items.search.engine:database}' == 'database'")
+public class LikeItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+
+    public LikeItemSearch(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Integer> search(String text, Pageable page) {
+        return itemRepository.findAvailableIdsByNameOrDescriptionContaining(text, page);
+    }
+
+    @Override
+    public List<Integer> search(String text, Pageable page, FacetCounts facets) {
+        List<Integer> ids = new ArrayList<>(page.getPageSize());
+        int before = facets.available();
+        for (ItemRepository.SearchMatch match : itemRepository.findSearchMatchesByNameOrDescriptionContaining(text)) {
+            if (!match.getAvailable()) {
+                facets.addUnavailable(1);
+                continue;
+            }
+            facets.addAvailable(match.getRequestId() != null, match.getOwnerId());
+            if (facets.available() - before > page.getOffset() && ids.size() < page.getPageSize()) {
+                ids.add(match.getId());
+            }
+        }
+        return ids;
+    }
+}
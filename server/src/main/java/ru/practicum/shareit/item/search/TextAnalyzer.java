@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Turns item texts and search queries into search terms: the text is split into lower-cased words
+ * of letters and digits, then every word passes the filters listed in
+ * {@code shareit.items.search.analyzer.filters}, in order. A filter may also prepare the whole text
+ * before it is split. The same analyzer is used for indexing and for queries, so both sides agree on
+ * the terms.
+ */
+@Component
+public class TextAnalyzer {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TokenFilter[] filters;
+
+    @Autowired
+    public TextAnalyzer(@Value("${shareit.items.search.analyzer.filters:normalize,stop-words,stem}") List<String> filters) {
+        this(filters.stream().map(TokenFilter::of).toArray(TokenFilter[]::new));
+    }
+
+    TextAnalyzer(TokenFilter... filters) {
+        this.filters = filters;
+    }
+
+    public List<String> analyze(String text) {
+        for (TokenFilter filter : filters) {
+            text = filter.prepare(text);
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : tokenize(text)) {
+            String term = word;
+            for (int i = 0; i < filters.length && term != null; i++) {
+                term = filters[i].apply(term);
+            }
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The configured filters, so terms stored on disk can be checked to come from the same analysis.
+     */
+    public String describe() {
+        return Arrays.stream(filters).map(filter -> filter.key).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Lower-cased words of letters and digits, without any filtering.
+     */
+    static List<String> tokenize(String text) {
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /**
+     * One step of the analysis. A filter returns the changed word, or {@code null} to drop it.
+     */
+    enum TokenFilter {
+        /**
+         * Unicode compatibility normalization, so ligatures and full-width forms match plain letters.
+         * It runs on the whole text before the split, as some characters normalize to punctuation,
+         * such as "⑴" to "(1)" or "½" to "1⁄2", and the split has to remove it.
+         */
+        NORMALIZE("normalize") {
+            @Override
+            String prepare(String text) {
+                return Normalizer.isNormalized(text, Normalizer.Form.NFKC)
+                        ? text : Normalizer.normalize(text, Normalizer.Form.NFKC);
+            }
+        },
+        STOP_WORDS("stop-words") {
+            @Override
+            String apply(String word) {
+                return LightStemmer.isStopWord(word) ? null : word;
+            }
+        },
+        STEM("stem") {
+            @Override
+            String apply(String word) {
+                return LightStemmer.stem(word);
+            }
+        };
+
+        private final String key;
+
+        TokenFilter(String key) {
+            this.key = key;
+        }
+
+        String prepare(String text) {
+            return text;
+        }
+
+        String apply(String word) {
+            return word;
+        }
+
+        static TokenFilter of(String key) {
+            for (TokenFilter filter : values()) {
+                if (filter.key.equals(key.strip())) {
+                    return filter;
+                }
+            }
+            throw new IllegalArgumentException("Unknown search analyzer filter " + key);
+        }
+    }
+}
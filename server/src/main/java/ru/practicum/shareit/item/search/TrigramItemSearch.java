@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * PostgreSQL fuzzy search with {@code pg_trgm} over the partial trigram index on the lower-cased
+ * names of available items. A name matches when some part of it has a word similarity of at least
+ * {@code shareit.items.search.fuzzy.threshold} with the text.
+ */
+@Component
+@ConditionalOnExpression("'${spring.sql.init.platform:}' == 'postgresql' " +
+        "and '${shareit.items.search.engine:database}' == 'database'")
+public class TrigramItemSearch implements FuzzyItemSearch {
+    private static final String SET_THRESHOLD = "SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)";
+    private static final String SEARCH = "SELECT i.id FROM items i WHERE i.available AND ? <% lower(i.name) " +
+            "ORDER BY word_similarity(?, lower(i.name)) DESC, similarity(?, lower(i.name)) DESC, i.id LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double threshold;
+
+    public TrigramItemSearch(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${shareit.items.search.fuzzy.threshold:0.3}") double threshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.threshold = threshold;
+    }
+
+    /**
+     * Sets the threshold for the transaction that runs the query, since the {@code <%} operator
+     * only takes it from the configuration. The setting ends with the transaction, so the pooled
+     * connection goes back without it.
+     */
+    @Override
+    public List<Integer> search(String text, Pageable page) {
+        String query = text.strip().toLowerCase(Locale.ROOT);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        return transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(SET_THRESHOLD)) {
+                statement.setString(1, Double.toString(threshold));
+                statement.execute();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SEARCH)) {
+                statement.setString(1, query);
+                statement.setString(2, query);
+                statement.setString(3, query);
+                statement.setInt(4, page.getPageSize());
+                statement.setLong(5, page.getOffset());
+                List<Integer> ids = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+                return ids;
+            }
+        }));
+    }
+}
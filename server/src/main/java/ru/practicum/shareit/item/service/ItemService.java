@@ -1,12 +1,15 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.item.CommentDto;
 import ru.practicum.shareit.item.NewCommentRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoCommentBooking;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItem;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -18,8 +21,16 @@ public interface ItemService {
 
     List<ItemDtoCommentBooking> getUserItems(Integer ownerId);
 
+    List<BookingPeriod> getAvailability(Integer itemId, LocalDateTime from, LocalDateTime to);
+
     List<ItemDto> search(String text, int from, int size);
 
+    ItemSearchPage searchWithFacets(String text, int from, int size);
+
+    List<ItemDto> fuzzySearch(String text, int from, int size);
+
+    List<String> suggest(String prefix, int size);
+
     void delete(Integer id);
 
     CommentDto createComment(NewCommentRequest commentDto, Integer itemId, Integer userId);
@@ -2,11 +2,14 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -17,11 +20,19 @@ import ru.practicum.shareit.item.CommentRepository;
 import ru.practicum.shareit.item.NewCommentRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoCommentBooking;
+import ru.practicum.shareit.item.dto.ItemSearchFacets;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItem;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.BookingPointers;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.FacetCounts;
+import ru.practicum.shareit.item.search.FuzzyItemSearch;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -29,9 +40,11 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,11 +55,20 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingCalendar bookingCalendar;
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
     private final CommentMapper commentMapper;
+    private final ItemSearch itemSearch;
+    private final FuzzyItemSearch fuzzyItemSearch;
+    private final ItemSearchCache itemSearchCache;
+    private final Optional<ItemNameSuggester> itemNameSuggester;
+
+    @Value("${shareit.items.search.facets.owners:5}")
+    private int facetOwners;
 
     @Override
     @Transactional
@@ -55,6 +77,10 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemMapper.toItem(owner, request);
         item.setOwner(owner);
         Item saved = itemRepository.save(item);
+        itemSearch.index(saved);
+        itemNameSuggester.ifPresent(suggester -> suggester.index(saved));
+        fuzzyItemSearch.index(saved);
+        itemSearchCache.evictMatching(saved.getName(), saved.getDescription());
         return itemMapper.toItemDto(saved);
     }
 
@@ -66,8 +92,9 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("User not found"));
         LocalDateTime now = LocalDateTime.now();
 
-        Boolean hasPastBooking = bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(userId, itemId, now);
-        if (Boolean.FALSE.equals(hasPastBooking)) {
+        boolean hasPastBooking = bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(userId, itemId, now)
+                || archivedBookingRepository.existsByBookerIdAndItemIdAndStatus(userId, itemId, Status.APPROVED);
+        if (!hasPastBooking) {
             throw new BadRequestException("You can only comment after renting this item and the rental period is over.");
         }
         Comment comment = commentMapper.toComment(commentDto, item, user);
@@ -83,20 +110,24 @@ public class ItemServiceImpl implements ItemService {
         if (!(item.getOwner().getId().equals(ownerId))) {
             throw new NotFoundException("Wrong owner ID");
         }
-        return itemMapper.toItemDto(itemRepository.save(itemMapper.updateItem(request, item)));
+        String oldName = item.getName();
+        String oldDescription = item.getDescription();
+        Item saved = itemRepository.save(itemMapper.updateItem(request, item));
+        itemSearch.index(saved);
+        itemNameSuggester.ifPresent(suggester -> suggester.index(saved));
+        fuzzyItemSearch.index(saved);
+        itemSearchCache.evictMatching(oldName, oldDescription, saved.getName(), saved.getDescription());
+        return itemMapper.toItemDto(saved);
     }
 
     @Override
     public ItemDtoCommentBooking get(Integer itemId, Integer userId) {
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("item not found"));
-        BookingPeriod next = null;
-        BookingPeriod last = null;
-        if (userId.equals(item.getOwner().getId())) {
-            next = bookingRepository.findNextBookingByItemId(itemId, LocalDateTime.now()).orElse(null);
-            last = bookingRepository.findLastBookingByItemId(itemId, LocalDateTime.now()).orElse(null);
-        }
         List<Comment> comments = commentRepository.findAllByItemId(itemId);
-        return itemMapper.toItemDtoBooking(item, next, last, comments);
+        if (!userId.equals(item.getOwner().getId())) {
+            return itemMapper.toItemDtoBooking(item, null, null, comments);
+        }
+        return toItemDtoBooking(item, comments);
     }
 
     @Override
@@ -107,36 +138,31 @@ public class ItemServiceImpl implements ItemService {
         }
         List<Integer> itemIds = items.stream().map(Item::getId).toList();
 
-        List<Booking> bookings = bookingRepository.findByItemIdIn(itemIds);
-
         List<Comment> comments = commentRepository.findAllByItemIds(itemIds);
 
-        Map<Integer, List<Booking>> bookingsByItem = bookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-
         Map<Integer, List<Comment>> commentsByItem = comments.stream()
                 .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
 
         return items.stream()
-                .map(item -> {
-                    List<Booking> itemBookings = bookingsByItem.getOrDefault(item.getId(), List.of());
-
-                    Booking last = getLast(itemBookings, item.getId());
-                    Booking next = getNext(itemBookings, item.getId());
-
-                    BookingPeriod lastPeriod = (last != null) ? new BookingPeriod(last.getStart(), last.getEnd()) : null;
-                    BookingPeriod nextPeriod = (next != null) ? new BookingPeriod(next.getStart(), next.getEnd()) : null;
-
-                    return itemMapper.toItemDtoBooking(
-                            item,
-                            lastPeriod,
-                            nextPeriod,
-                            commentsByItem.getOrDefault(item.getId(), List.of())
-                    );
-                })
+                .map(item -> toItemDtoBooking(item, commentsByItem.getOrDefault(item.getId(), List.of())))
                 .toList();
     }
 
+    @Override
+    public List<BookingPeriod> getAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Availability window start should be before its end");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("item not found");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!to.isAfter(now)) {
+            return Collections.emptyList();
+        }
+        LocalDateTime start = from.isBefore(now) ? now : from;
+        return BookingCalendar.freeSlots(bookingCalendar.busyPeriods(itemId), start, to);
+    }
 
     @Override
     public List<ItemDto> search(String text, int from, int size) {
@@ -144,10 +170,47 @@ public class ItemServiceImpl implements ItemService {
             return Collections.emptyList();
         }
 
-        return itemRepository.findAllByNameOrDescriptionContaining(text, PageRequest.of(from, size)).stream()
-                .filter(Item::getAvailable)
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return itemSearchCache.get(text, from, size,
+                () -> toItemDtos(itemSearch.search(text, PageRequest.of(from, size))));
+    }
+
+    /**
+     * Not cached: the facets count items of any availability, which the word based eviction of the
+     * page cache does not track.
+     */
+    @Override
+    public ItemSearchPage searchWithFacets(String text, int from, int size) {
+        FacetCounts facets = new FacetCounts();
+        List<ItemDto> items = text.isBlank()
+                ? Collections.emptyList()
+                : toItemDtos(itemSearch.search(text, PageRequest.of(from, size), facets));
+        return ItemSearchPage.builder()
+                .items(items)
+                .facets(ItemSearchFacets.builder()
+                        .available(facets.available())
+                        .unavailable(facets.unavailable())
+                        .withRequest(facets.withRequest())
+                        .withoutRequest(facets.withoutRequest())
+                        .owners(facets.topOwners(facetOwners).stream()
+                                .map(owner -> new ItemSearchFacets.OwnerBucket(owner.ownerId(), owner.items()))
+                                .toList())
+                        .build())
+                .build();
+    }
+
+    @Override
+    public List<ItemDto> fuzzySearch(String text, int from, int size) {
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        return toItemDtos(fuzzyItemSearch.search(text, PageRequest.of(from, size)));
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int size) {
+        return itemNameSuggester
+                .map(suggester -> suggester.suggest(prefix, size))
+                .orElse(List.of());
     }
 
     @Override
@@ -155,22 +218,31 @@ public class ItemServiceImpl implements ItemService {
     public void delete(Integer id) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new NotFoundException("Item to delete was not found"));
         itemRepository.delete(item);
+        itemSearch.remove(id);
+        itemNameSuggester.ifPresent(suggester -> suggester.remove(id));
+        fuzzyItemSearch.remove(id);
+        itemSearchCache.evictMatching(item.getName(), item.getDescription());
     }
 
-    private Booking getLast(List<Booking> bookings, Integer itemId) {
-        return bookings.stream()
-                .filter(booking -> booking.getItem().getId().equals(itemId))
-                .max(Comparator.comparing(Booking::getEnd))
-                .orElse(null);
+    private List<ItemDto> toItemDtos(List<Integer> ids) {
+        Map<Integer, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(itemMapper::toItemDto)
+                .collect(Collectors.toList());
     }
 
-    private Booking getNext(List<Booking> bookings, Integer itemId) {
-        LocalDateTime now = LocalDateTime.now();
-
-        return bookings.stream()
-                .filter(booking -> booking.getItem().getId().equals(itemId))
-                .filter(booking -> booking.getStart().isAfter(now))
-                .min(Comparator.comparing(Booking::getStart))
-                .orElse(null);
+    private ItemDtoCommentBooking toItemDtoBooking(Item item, List<Comment> comments) {
+        BookingPointers pointers = item.getBookingPointers();
+        if (pointers == null) {
+            return itemMapper.toItemDtoBooking(item, null, null, comments);
+        }
+        BookingPeriod last = pointers.getLastStart() != null
+                ? new BookingPeriod(pointers.getLastStart(), pointers.getLastEnd()) : null;
+        BookingPeriod next = pointers.getNextStart() != null
+                ? new BookingPeriod(pointers.getNextStart(), pointers.getNextEnd()) : null;
+        return itemMapper.toItemDtoBooking(item, last, next, comments);
     }
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCounters;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
@@ -17,12 +18,14 @@ import ru.practicum.shareit.user.repository.UserRepository;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final BookingCounters bookingCounters;
 
     @Override
     @Transactional
     public UserDto create(NewUserRequest request) {
         User user = userMapper.toUser(request);
         user = userRepository.save(user);
+        bookingCounters.initialize(user.getId());
         return userMapper.toUserDto(user);
     }
 
@@ -48,5 +51,6 @@ public class UserServiceImpl implements UserService {
     public void delete(Integer userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь " + userId + "не найден"));
         userRepository.delete(user);
+        bookingCounters.remove(userId);
     }
 }
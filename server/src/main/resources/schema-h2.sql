@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS bookings (
+          id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+          start_from TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+          end_to TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+          item_id BIGINT NOT NULL,
+          status VARCHAR(100) NOT NULL,
+          booker_id BIGINT NOT NULL,
+          version INTEGER NOT NULL DEFAULT 0,
+          CONSTRAINT fk_booking_to_item FOREIGN KEY(item_id) REFERENCES items(id),
+          CONSTRAINT fk_booking_to_user FOREIGN KEY(booker_id) REFERENCES users(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings(booker_id, start_from, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_id ON bookings(item_id, start_from, id);
@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS bookings (
+          id BIGINT NOT NULL DEFAULT nextval('bookings_seq'),
+          start_from TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+          end_to TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+          item_id BIGINT NOT NULL,
+          status VARCHAR(100) NOT NULL,
+          booker_id BIGINT NOT NULL,
+          version INTEGER NOT NULL DEFAULT 0,
+          CONSTRAINT pk_bookings PRIMARY KEY (id, start_from),
+          CONSTRAINT fk_booking_to_item FOREIGN KEY(item_id) REFERENCES items(id),
+          CONSTRAINT fk_booking_to_user FOREIGN KEY(booker_id) REFERENCES users(id)
+) PARTITION BY RANGE (start_from);
+
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings(booker_id, start_from, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_id ON bookings(item_id, start_from, id);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+          setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+DROP INDEX IF EXISTS idx_items_search_vector;
+CREATE INDEX IF NOT EXISTS idx_items_available_search_vector ON items USING GIN (search_vector) WHERE available;
+CREATE INDEX IF NOT EXISTS idx_items_unavailable_search_vector ON items USING GIN (search_vector) WHERE NOT available;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_items_available_name_trgm ON items USING GIN (lower(name) gin_trgm_ops) WHERE available;
@@ -1,4 +1,5 @@
-drop TABLE IF EXISTS comments, booking, item_requests, users, items  CASCADE;
+drop TABLE IF EXISTS comments, bookings, bookings_archive, booking_counters, booking_counters_clock, item_requests, users, items  CASCADE;
+DROP SEQUENCE IF EXISTS bookings_seq;
 
 CREATE TABLE IF NOT EXISTS users (
             id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -23,21 +24,21 @@ CREATE TABLE IF NOT EXISTS item_requests (
           description VARCHAR(2000),
           available BOOLEAN NOT NULL,
           request_id BIGINT,
+          version INTEGER NOT NULL DEFAULT 0,
+          last_booking_start TIMESTAMP WITHOUT TIME ZONE,
+          last_booking_end TIMESTAMP WITHOUT TIME ZONE,
+          next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+          next_booking_end TIMESTAMP WITHOUT TIME ZONE,
+          booking_pointers_refresh_at TIMESTAMP WITHOUT TIME ZONE,
           CONSTRAINT fk_items_to_requests FOREIGN KEY(request_id) REFERENCES item_requests(id),
           CONSTRAINT fk_items_to_users FOREIGN KEY(user_id) REFERENCES users(id)
         );
 
 
-CREATE TABLE IF NOT EXISTS bookings (
-          id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-          start_from TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-          end_to TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-          item_id BIGINT NOT NULL,
-          status VARCHAR(100) NOT NULL,
-          booker_id BIGINT NOT NULL,
-          CONSTRAINT fk_booking_to_item FOREIGN KEY(item_id) REFERENCES items(id),
-          CONSTRAINT fk_booking_to_user FOREIGN KEY(booker_id) REFERENCES users(id)
-);
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items(user_id);
+CREATE INDEX IF NOT EXISTS idx_items_booking_pointers_refresh_at ON items(booking_pointers_refresh_at);
 
 CREATE TABLE IF NOT EXISTS comments (
         id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -49,3 +50,29 @@ CREATE TABLE IF NOT EXISTS comments (
         CONSTRAINT fk_comment_to_user FOREIGN KEY(user_id) REFERENCES users(id)
 );
 
+CREATE TABLE IF NOT EXISTS bookings_archive (
+          id BIGINT PRIMARY KEY,
+          start_from TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+          end_to TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+          item_id BIGINT NOT NULL,
+          status VARCHAR(100) NOT NULL,
+          booker_id BIGINT NOT NULL,
+          CONSTRAINT fk_archived_booking_to_item FOREIGN KEY(item_id) REFERENCES items(id),
+          CONSTRAINT fk_archived_booking_to_user FOREIGN KEY(booker_id) REFERENCES users(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start_id ON bookings_archive(booker_id, start_from, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_start_id ON bookings_archive(item_id, start_from, id);
+
+CREATE TABLE IF NOT EXISTS booking_counters (
+          user_id BIGINT NOT NULL,
+          role VARCHAR(10) NOT NULL,
+          state VARCHAR(10) NOT NULL,
+          total BIGINT NOT NULL,
+          CONSTRAINT pk_booking_counters PRIMARY KEY (user_id, role, state)
+);
+
+CREATE TABLE IF NOT EXISTS booking_counters_clock (
+          id INT PRIMARY KEY,
+          reconciled_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
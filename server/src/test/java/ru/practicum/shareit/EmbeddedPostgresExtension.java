@@ -0,0 +1,70 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Gives a test class its own PostgreSQL database with {@code schema.sql} and
+ * {@code schema-postgresql.sql} applied and an owner with id 1. All classes share one embedded
+ * server, started by the first of them and stopped when the test run ends. Registered as a static
+ * field, so the database is ready in the class's {@code @BeforeAll} methods:
+ * <pre>
+ * &#64;RegisterExtension
+ * static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+ * </pre>
+ */
+public class EmbeddedPostgresExtension implements BeforeAllCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(EmbeddedPostgresExtension.class);
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        Server server = context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(Server.class, type -> new Server(), Server.class);
+        String database = context.getRequiredTestClass().getSimpleName().toLowerCase(Locale.ROOT);
+        server.jdbcTemplate.execute("CREATE DATABASE " + database);
+        dataSource = server.postgres.getDatabase("postgres", database);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("schema-postgresql.sql"))
+                .execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@email.com')");
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    private static final class Server implements ExtensionContext.Store.CloseableResource {
+        private final EmbeddedPostgres postgres;
+        private final JdbcTemplate jdbcTemplate;
+
+        private Server() {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        }
+
+        @Override
+        public void close() throws IOException {
+            postgres.close();
+        }
+    }
+}
@@ -192,7 +192,7 @@ class MappersTest {
     }
 
     private void testItemDtoMapping(User owner) {
-        Item item = new Item(1, "item", "desc", true, owner, 1);
+        Item item = new Item(1, "item", "desc", true, owner, 1, null, null);
         ItemDto itemDto = itemMapper.toItemDto(item);
 
         assertAll(
@@ -206,7 +206,7 @@ class MappersTest {
     }
 
     private void testItemUpdateMapping(User owner) {
-        Item existingItem = new Item(1, "old", "old desc", false, owner, null);
+        Item existingItem = new Item(1, "old", "old desc", false, owner, null, null, null);
 
         UpdateItem fullUpdate = new UpdateItem("new", "new desc", true);
         Item updatedItem = itemMapper.updateItem(fullUpdate, existingItem);
@@ -219,7 +219,7 @@ class MappersTest {
     }
 
     private void testItemDtoBookingMapping(User owner) {
-        Item item = new Item(1, "item", "desc", true, owner, null);
+        Item item = new Item(1, "item", "desc", true, owner, null, null, null);
         BookingPeriod lastBooking = new BookingPeriod(LocalDateTime.now().minusMonths(2L), LocalDateTime.now().minusMonths(1L));
         BookingPeriod nextBooking = new BookingPeriod(LocalDateTime.now().plusMonths(1L), LocalDateTime.now().plusMonths(4L));
         Comment comment = new Comment(1, "text", item, owner, LocalDateTime.now());
@@ -237,7 +237,7 @@ class MappersTest {
     @Test
     void bookingMapper_ShouldMapCorrectly() {
         User booker = new User(2, "booker", "booker@test.com");
-        Item item = new Item(1, "item", "desc", true, booker, null);
+        Item item = new Item(1, "item", "desc", true, booker, null, null, null);
         LocalDateTime start = LocalDateTime.now().plusDays(1);
         LocalDateTime end = LocalDateTime.now().plusDays(2);
 
@@ -291,7 +291,7 @@ class MappersTest {
     @Test
     void commentMapper_ShouldMapCorrectly() {
         User author = new User(3, "author", "author@test.com");
-        Item item = new Item(2, "item2", "desc2", true, author, null);
+        Item item = new Item(2, "item2", "desc2", true, author, null, null, null);
 
         testCommentMapping(author, item);
         testCommentDtoMapping(author, item);
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingCalendarTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private final BookingRepository repository = mock(BookingRepository.class);
+    private BookingCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findPeriodsByItemId(anyInt(), any(), any(), any())).thenReturn(List.of());
+        calendar = new BookingCalendar(repository, 2, 60, 92, clock, registry);
+    }
+
+    @Test
+    void busyPeriods_shouldReadOnlyBookingsThatCanStillRun() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        BookingPeriod first = new BookingPeriod(now.plusHours(1), now.plusHours(3));
+        BookingPeriod second = new BookingPeriod(now.plusHours(2), now.plusHours(4));
+        when(repository.findPeriodsByItemId(eq(1), any(), eq(now.minusDays(92)), eq(now)))
+                .thenReturn(List.of(first, second));
+
+        assertThat(calendar.busyPeriods(1), contains(new BookingPeriod(now.plusHours(1), now.plusHours(4))));
+    }
+
+    @Test
+    void busyPeriods_shouldEvictLeastRecentlyUsedAndExpiredCalendars() {
+        calendar.busyPeriods(1);
+        calendar.busyPeriods(2);
+        calendar.busyPeriods(1);
+        calendar.busyPeriods(3);
+        calendar.busyPeriods(1);
+        calendar.busyPeriods(2);
+        verify(repository, times(1)).findPeriodsByItemId(eq(1), any(), any(), any());
+        verify(repository, times(2)).findPeriodsByItemId(eq(2), any(), any(), any());
+        assertThat(calendar.size(), equalTo(2));
+
+        clock.millis += 60_000;
+        calendar.busyPeriods(1);
+
+        verify(repository, times(2)).findPeriodsByItemId(eq(1), any(), any(), any());
+        assertThat(registry.get("booking.calendar.cache.evictions").tag("cause", "size").counter().count(),
+                equalTo(2.0));
+        assertThat(registry.get("booking.calendar.cache.evictions").tag("cause", "expired").counter().count(),
+                equalTo(1.0));
+    }
+
+    @Test
+    void evictAfterCompletion_shouldReloadCalendar() {
+        calendar.busyPeriods(1);
+        calendar.evictAfterCompletion(1);
+        calendar.busyPeriods(1);
+
+        verify(repository, times(2)).findPeriodsByItemId(eq(1), any(), any(), any());
+    }
+
+    private static class MutableClock extends Clock {
+        long millis = 1_700_000_000_000L;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
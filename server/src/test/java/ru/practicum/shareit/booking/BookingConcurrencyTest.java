@@ -0,0 +1,189 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.NewItemRequest;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.NewUserRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingConcurrencyTest {
+    private static final int SLOTS = 50;
+    private static final int REQUESTS_PER_SLOT = 40;
+
+    private final BookingService service;
+    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(new NewUserRequest("owner", "stress-owner@email.com"));
+        booker = userService.create(new NewUserRequest("booker", "stress-booker@email.com"));
+        item = itemService.create(new NewItemRequest("Stress item", "Stress item", true, null), owner.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findAllByBookerId(booker.getId()));
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void parallelRequestsForOneItem_shouldNeverDoubleBook() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<Callable<BookingDto>> requests = new ArrayList<>();
+        for (int i = 0; i < SLOTS * REQUESTS_PER_SLOT; i++) {
+            int slot = i % SLOTS;
+            long shift = i % 2 == 0 ? 0 : 30;
+            LocalDateTime start = base.plusHours(slot).plusMinutes(shift);
+            requests.add(() -> service.createBookingRequest(booker.getId(),
+                    new NewBookingRequest(start, start.plusHours(1), item.getId())));
+        }
+
+        AtomicInteger conflicts = new AtomicInteger();
+        List<BookingDto> created = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            for (Future<BookingDto> future : executor.invokeAll(requests)) {
+                try {
+                    created.add(future.get());
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause().getClass(), equalTo(ConflictException.class));
+                    conflicts.incrementAndGet();
+                }
+            }
+
+            List<Callable<BookingDto>> approvals = new ArrayList<>();
+            for (BookingDto booking : created) {
+                approvals.add(() -> service.updateBookingStatus(booking.getId(), owner.getId(), true));
+                approvals.add(() -> service.updateBookingStatus(booking.getId(), owner.getId(), true));
+            }
+            for (Future<BookingDto> future : executor.invokeAll(approvals)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Booking> stored = bookingRepository.findAllByBookerId(booker.getId()).stream()
+                .sorted(Comparator.comparing(Booking::getStart))
+                .toList();
+        assertThat(stored, hasSize(created.size()));
+        assertThat(created.size() + conflicts.get(), equalTo(SLOTS * REQUESTS_PER_SLOT));
+        assertThat(stored.stream().map(Booking::getStatus).toList(), everyItem(equalTo(Status.APPROVED)));
+        for (int i = 1; i < stored.size(); i++) {
+            assertThat(stored.get(i - 1).getEnd(), lessThanOrEqualTo(stored.get(i).getStart()));
+        }
+    }
+
+    @Test
+    void mailboxMode_shouldCreateRequestsInArrivalOrderAndReclaimMailboxes() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ItemBookingMailboxes mailboxes = new ItemBookingMailboxes(service, registry, true, 1000);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<CompletableFuture<BookingDto>> results = new ArrayList<>();
+        for (int i = 0; i < SLOTS * 4; i++) {
+            LocalDateTime start = base.plusHours(i % SLOTS).plusMinutes(i < SLOTS ? 0 : 30);
+            results.add(mailboxes.createBookingRequest(booker.getId(),
+                    new NewBookingRequest(start, start.plusHours(1), item.getId())));
+        }
+
+        try {
+            for (int i = 0; i < results.size(); i++) {
+                if (i < SLOTS) {
+                    assertThat(results.get(i).get().getStart(), equalTo(base.plusHours(i)));
+                } else {
+                    int index = i;
+                    ExecutionException e = assertThrows(ExecutionException.class,
+                            () -> results.get(index).get());
+                    assertThat(e.getCause().getClass(), equalTo(ConflictException.class));
+                }
+            }
+        } finally {
+            mailboxes.shutdown();
+        }
+
+        assertThat(bookingRepository.findAllByBookerId(booker.getId()), hasSize(SLOTS));
+        assertThat(registry.get("booking.mailbox.items").gauge().value(), equalTo(0.0));
+    }
+
+    @Test
+    void mailboxMode_shouldRejectRequestsBeyondCapacity() throws Exception {
+        BookingService blockedService = mock(BookingService.class);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(blockedService.createBookingRequest(anyInt(), any(NewBookingRequest.class))).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return null;
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ItemBookingMailboxes mailboxes = new ItemBookingMailboxes(blockedService, registry, true, 1);
+        NewBookingRequest request = new NewBookingRequest(null, null, item.getId());
+
+        try {
+            CompletableFuture<BookingDto> running = mailboxes.createBookingRequest(booker.getId(), request);
+            entered.await();
+            CompletableFuture<BookingDto> queued = mailboxes.createBookingRequest(booker.getId(), request);
+            assertThrows(TooManyRequestsException.class,
+                    () -> mailboxes.createBookingRequest(booker.getId(), request));
+            release.countDown();
+            running.get();
+            queued.get();
+        } finally {
+            release.countDown();
+            mailboxes.shutdown();
+        }
+
+        assertThat(registry.get("booking.mailbox.rejections").counter().count(), equalTo(1.0));
+    }
+}
@@ -10,25 +10,40 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.UtilTestDataClass;
+import ru.practicum.shareit.booking.dto.AvailabilityRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSlice;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdate;
+import ru.practicum.shareit.booking.dto.ItemAvailability;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.dto.UpdateBookingRequest;
+import ru.practicum.shareit.exception.BatchConflictException;
+import ru.practicum.shareit.exception.BatchException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +58,12 @@ class BookingControllerTest {
 
     @MockBean
     private final BookingService service;
+
+    @MockBean
+    private final BookingExporter exporter;
+
+    @MockBean
+    private final ItemBookingMailboxes mailboxes;
     private BookingDto dto;
     private UpdateBookingRequest update;
     private List<BookingDto> bookings;
@@ -58,16 +79,18 @@ class BookingControllerTest {
     @Test
     @SneakyThrows
     void createBookingRequest() {
-        when(service.createBookingRequest(anyInt(), any(NewBookingRequest.class)))
-                .thenReturn(dto);
+        when(mailboxes.createBookingRequest(anyInt(), any(NewBookingRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(dto));
 
-        mvc.perform(post("/bookings")
+        MvcResult result = mvc.perform(post("/bookings")
                         .content(mapper.writeValueAsString(dto))
                         .header("X-Sharer-User-Id", dto.getBooker().getId())
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
 
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(dto.getId()), Integer.class))
                 .andExpect(jsonPath("$.item.id", is(dto.getItem().getId())))
@@ -75,7 +98,7 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.item.description", is(dto.getItem().getDescription())))
                 .andExpect(jsonPath("$.item.available", is(dto.getItem().getAvailable())));
 
-        verify(service, times(1)).createBookingRequest(anyInt(), any(NewBookingRequest.class));
+        verify(mailboxes, times(1)).createBookingRequest(anyInt(), any(NewBookingRequest.class));
     }
 
 
@@ -124,7 +147,7 @@ class BookingControllerTest {
     @SneakyThrows
     void findAllByUserId() {
         int userId = dto.getBooker().getId();
-        when(service.findAllByUserId(anyInt(), anyString()))
+        when(service.findAllByUserId(anyInt(), anyString(), anyInt(), anyInt()))
                 .thenReturn(bookings);
 
         mvc.perform(get("/bookings")
@@ -135,17 +158,20 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status", is(dto.getStatus())));
 
 
-        verify(service).findAllByUserId(userId, "ALL");
+        verify(service).findAllByUserId(userId, "ALL", 0, 10);
     }
 
     @Test
     @SneakyThrows
     void findAllByOwnerId() {
-        int userId = dto.getBooker().getId();
-        when(service.findAllByUserId(anyInt(), anyString()))
+        int userId = dto.getItem().getOwnerId();
+        when(service.findAllByOwnerId(anyInt(), anyString(), anyInt(), anyInt()))
                 .thenReturn(bookings);
 
-        mvc.perform(get("/bookings")
+        mvc.perform(get("/bookings/owner")
+                        .param("state", "FUTURE")
+                        .param("from", "1")
+                        .param("size", "5")
                         .header("X-Sharer-User-Id", userId)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -153,6 +179,167 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status", is(dto.getStatus())));
 
 
-        verify(service).findAllByUserId(userId, "ALL");
+        verify(service).findAllByOwnerId(userId, "FUTURE", 1, 5);
+    }
+
+    @Test
+    @SneakyThrows
+    void findAllByUserId_withCursor() {
+        int userId = dto.getBooker().getId();
+        when(service.scrollAllByUserId(anyInt(), anyString(), anyString(), anyInt()))
+                .thenReturn(new BookingSlice(bookings, "next"));
+
+        mvc.perform(get("/bookings")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$[0].id", is(dto.getId()), Integer.class));
+
+        verify(service).scrollAllByUserId(userId, "ALL", "", 1);
+    }
+
+    @Test
+    @SneakyThrows
+    void createBookingRequests() {
+        when(service.createBookingRequests(anyInt(), anyList()))
+                .thenReturn(bookings);
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(UtilTestDataClass.TestBooking.newBookingRequest())))
+                        .header("X-Sharer-User-Id", dto.getBooker().getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(dto.getId()), Integer.class));
+
+        verify(service, times(1)).createBookingRequests(anyInt(), anyList());
+    }
+
+    @Test
+    @SneakyThrows
+    void createBookingRequest_FailWhenMailboxIsFull() {
+        when(mailboxes.createBookingRequest(anyInt(), any(NewBookingRequest.class)))
+                .thenThrow(new TooManyRequestsException("Too many pending booking requests for item id 1"));
+
+        mvc.perform(post("/bookings")
+                        .content(mapper.writeValueAsString(dto))
+                        .header("X-Sharer-User-Id", dto.getBooker().getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @SneakyThrows
+    void createBookingRequests_FailReturnsEntryErrors() {
+        when(service.createBookingRequests(anyInt(), anyList()))
+                .thenThrow(new BatchException("Bookings were not created", Arrays.asList(null, "Cannot book unavailable item")));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(UtilTestDataClass.TestBooking.newBookingRequest())))
+                        .header("X-Sharer-User-Id", dto.getBooker().getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[1]", is("Cannot book unavailable item")));
+    }
+
+    @Test
+    @SneakyThrows
+    void createBookingRequests_FailReturnsConflictForOverlaps() {
+        when(service.createBookingRequests(anyInt(), anyList()))
+                .thenThrow(new BatchConflictException("Bookings were not created",
+                        Arrays.asList(null, "Item id 1 is already booked for this period")));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(UtilTestDataClass.TestBooking.newBookingRequest())))
+                        .header("X-Sharer-User-Id", dto.getBooker().getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors[1]", is("Item id 1 is already booked for this period")));
+    }
+
+    @Test
+    @SneakyThrows
+    void processBookingRequests() {
+        when(service.updateBookingStatuses(anyList(), anyInt(), anyBoolean()))
+                .thenReturn(List.of(new BookingStatusUpdate(dto.getId(), "APPROVED", null),
+                        new BookingStatusUpdate(999, null, "Booking id 999 not found")));
+
+        mvc.perform(patch("/bookings/batch")
+                        .param("approved", "true")
+                        .content(mapper.writeValueAsString(List.of(dto.getId(), 999)))
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].error", is("Booking id 999 not found")));
+
+        verify(service, times(1)).updateBookingStatuses(anyList(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void countByOwnerId() {
+        when(service.countByOwnerId(anyInt()))
+                .thenReturn(new BookingStateCounts(3, 1, 1, 1, 1, 0));
+
+        mvc.perform(get("/bookings/owner/counts")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(3)))
+                .andExpect(jsonPath("$.future", is(1)))
+                .andExpect(jsonPath("$.waiting", is(1)));
+
+        verify(service, times(1)).countByOwnerId(1);
+    }
+
+    @Test
+    @SneakyThrows
+    void exportByOwnerId() {
+        String line = mapper.writeValueAsString(dto) + "\n";
+        when(exporter.exportByOwnerId(anyInt()))
+                .thenReturn(out -> out.write(line.getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line));
+
+        verify(exporter, times(1)).exportByOwnerId(1);
+    }
+
+    @Test
+    @SneakyThrows
+    void checkAvailability() {
+        when(service.checkAvailability(any(AvailabilityRequest.class)))
+                .thenReturn(List.of(new ItemAvailability(1, true), new ItemAvailability(2, false)));
+
+        mvc.perform(post("/bookings/availability")
+                        .content("{\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\",\"itemIds\":[1,2]}")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].free", is(true)))
+                .andExpect(jsonPath("$[1].itemId", is(2)))
+                .andExpect(jsonPath("$[1].free", is(false)));
+
+        verify(service, times(1)).checkAvailability(any(AvailabilityRequest.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.Mockito.mock;
+
+class BookingExpiryWheelTest {
+
+    @Test
+    void wheel_shouldReturnEveryTimerOnceWhenItComesDue() {
+        BookingExpiryWheel.Wheel wheel = new BookingExpiryWheel.Wheel(1, 0);
+        Random random = new Random(42);
+        long[] deadlines = new long[10_000];
+        for (int id = 0; id < deadlines.length; id++) {
+            deadlines[id] = random.nextInt(20_000_000) - 1_000;
+            wheel.add(id, deadlines[id]);
+        }
+        assertThat(wheel.size(), equalTo(deadlines.length));
+
+        long[] firedAt = new long[deadlines.length];
+        Arrays.fill(firedAt, -1);
+        long previous = Long.MIN_VALUE;
+        for (long now = 0; now <= 20_000_000; now += 1 + random.nextInt(50_000)) {
+            for (int id : wheel.advance(now)) {
+                assertThat(firedAt[id], equalTo(-1L));
+                assertThat(deadlines[id], lessThanOrEqualTo(now));
+                assertThat(deadlines[id], greaterThan(previous));
+                firedAt[id] = now;
+            }
+            previous = now;
+        }
+        wheel.advance(20_000_000);
+
+        assertThat(wheel.size(), equalTo(0));
+    }
+
+    @Test
+    void schedule_shouldAddTimerOnlyOnceTransactionCommits() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BookingExpiryWheel expiryWheel = new BookingExpiryWheel(mock(JdbcTemplate.class), registry, 1000);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            expiryWheel.schedule(Booking.builder().id(1).start(start).build());
+            assertThat(registry.get("booking.expiry.pending").gauge().value(), equalTo(0.0));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(registry.get("booking.expiry.pending").gauge().value(), equalTo(1.0));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+
+    @Test
+    void timeline_shouldDetectOverlapsAgainstAllStoredIntervals() {
+        BookingIntervalIndex.Timeline timeline = new BookingIntervalIndex.Timeline();
+        timeline.insert(1, 0, 100);
+        timeline.insert(2, 10, 20);
+        timeline.insert(3, 200, 300);
+
+        assertThat(timeline.overlaps(30, 40), equalTo(true));
+        assertThat(timeline.overlaps(100, 200), equalTo(false));
+        assertThat(timeline.overlaps(150, 250), equalTo(true));
+        assertThat(timeline.overlaps(300, 400), equalTo(false));
+
+        assertThat(timeline.remove(1), equalTo(true));
+        assertThat(timeline.remove(1), equalTo(false));
+        assertThat(timeline.overlaps(30, 40), equalTo(false));
+        assertThat(timeline.overlaps(15, 40), equalTo(true));
+        assertThat(timeline.size(), equalTo(2));
+    }
+
+    @Test
+    void timeline_shouldPruneEndedIntervals() {
+        BookingIntervalIndex.Timeline timeline = new BookingIntervalIndex.Timeline();
+        timeline.insert(1, 0, 100);
+        timeline.insert(2, 10, 20);
+        timeline.insert(3, 200, 300);
+
+        assertThat(timeline.prune(100), equalTo(2));
+        assertThat(timeline.size(), equalTo(1));
+        assertThat(timeline.overlaps(30, 40), equalTo(false));
+        assertThat(timeline.overlaps(250, 260), equalTo(true));
+        assertThat(timeline.prune(100), equalTo(0));
+    }
+
+    @Test
+    void reserve_shouldReloadLeastRecentlyUsedTimelineAfterEviction() {
+        BookingRepository repository = mock(BookingRepository.class);
+        when(repository.findAllByItemIdAndStatusInAndEndAfter(anyInt(), any(), any())).thenReturn(List.of());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BookingIntervalIndex index = new BookingIntervalIndex(repository, 2, registry);
+
+        index.reserve(booking(1, 1));
+        index.reserve(booking(2, 2));
+        index.reserve(booking(3, 1));
+        index.reserve(booking(4, 3));
+        index.reserve(booking(5, 1));
+        index.reserve(booking(6, 2));
+
+        verify(repository, times(1)).findAllByItemIdAndStatusInAndEndAfter(eq(1), any(), any());
+        verify(repository, times(2)).findAllByItemIdAndStatusInAndEndAfter(eq(2), any(), any());
+        verify(repository, times(1)).findAllByItemIdAndStatusInAndEndAfter(eq(3), any(), any());
+        assertThat(registry.get("booking.index.items").gauge().value(), equalTo(2.0));
+        assertThat(registry.get("booking.index.evictions").counter().count(), equalTo(2.0));
+    }
+
+    private static Booking booking(int id, int itemId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(id);
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(itemId).build())
+                .start(start)
+                .end(start.plusHours(1))
+                .build();
+    }
+}
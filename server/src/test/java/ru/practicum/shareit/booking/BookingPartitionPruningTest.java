@@ -0,0 +1,250 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.EmbeddedPostgresExtension;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the {@link BookingRepository} state queries against PostgreSQL and explains the statements
+ * Hibernate sent, with the parameters it bound. Each statement is explained both as a custom plan,
+ * which prunes partitions while planning, and as a generic plan, which prunes them when the
+ * executor starts and reports them as removed subplans.
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BookingPartitionPruningTest {
+    @RegisterExtension
+    static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final List<ExecutedQuery> executed = new CopyOnWriteArrayList<>();
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository repository;
+
+    @TestConfiguration
+    static class CapturingDataSourceConfiguration {
+        @Bean
+        DataSource dataSource() {
+            return capturing(postgres.getDataSource());
+        }
+    }
+
+    @BeforeAll
+    static void setUp() {
+        jdbcTemplate = postgres.getJdbcTemplate();
+        jdbcTemplate.update("INSERT INTO items (id, user_id, name, available) VALUES (1, 1, 'item', true)");
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDateTime start : List.of(now.minusYears(2), now.plusDays(1), now.plusMonths(2))) {
+            jdbcTemplate.update("INSERT INTO bookings (start_from, end_to, item_id, status, booker_id) " +
+                    "VALUES (?, ?, 1, 'APPROVED', 1)", start, start.plusDays(1));
+        }
+        new BookingPartitions(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(postgres.getDataSource())), 3)
+                .createUpcoming();
+    }
+
+    @BeforeEach
+    void clearExecuted() {
+        executed.clear();
+    }
+
+    @Test
+    void createUpcoming_shouldMoveRowsOutOfDefaultPartition() {
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bookings_default", Integer.class), equalTo(1));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bookings", Integer.class), equalTo(3));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " +
+                BookingPartitions.partitionName(YearMonth.now().plusMonths(2)), Integer.class), equalTo(1));
+    }
+
+    @Test
+    void createOnStartup_shouldNotFailStartup() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("down"));
+        BookingPartitions partitions = new BookingPartitions(jdbcTemplate, new TransactionTemplate(transactionManager), 3);
+
+        assertDoesNotThrow(partitions::createOnStartup);
+    }
+
+    @Test
+    void futureQuery_shouldSkipEarlierPartitions() {
+        YearMonth month = YearMonth.now().plusMonths(2);
+        repository.findAllByBookerIdAndStartAfter(1, month.atDay(1).atStartOfDay(), PageRequest.of(0, 10, NEWEST_FIRST));
+
+        assertPruned(lastBookingQuery(), List.of(month), List.of(YearMonth.now(), month.minusMonths(1)));
+    }
+
+    @Test
+    void futureScroll_shouldSkipEarlierPartitionsWithOwnerJoin() {
+        YearMonth month = YearMonth.now().plusMonths(2);
+        repository.findAllByItemOwnerIdAndStartAfter(1, month.atDay(1).atStartOfDay(),
+                ScrollPosition.keyset(), Limit.of(10), NEWEST_FIRST);
+
+        assertPruned(lastBookingQuery(), List.of(month), List.of(YearMonth.now(), month.minusMonths(1)));
+    }
+
+    @Test
+    void currentQuery_shouldSkipLaterPartitions() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.findAllByItemOwnerIdAndStartBetweenAndEndAfter(1, now.minusDays(92), now, now,
+                PageRequest.of(0, 10, NEWEST_FIRST));
+
+        assertPruned(lastBookingQuery(), List.of(YearMonth.now()),
+                List.of(YearMonth.now().plusMonths(1), YearMonth.now().plusMonths(3)));
+    }
+
+    private static void assertPruned(ExecutedQuery query, List<YearMonth> scanned, List<YearMonth> skipped) {
+        for (String planCacheMode : List.of("force_custom_plan", "force_generic_plan")) {
+            String plan = explain(query, planCacheMode);
+            for (YearMonth month : scanned) {
+                assertThat(plan, containsString(BookingPartitions.partitionName(month)));
+            }
+            for (YearMonth month : skipped) {
+                assertThat(plan, not(containsString(BookingPartitions.partitionName(month))));
+            }
+            if (planCacheMode.equals("force_generic_plan")) {
+                assertThat(plan, containsString("Subplans Removed"));
+            }
+        }
+    }
+
+    private static ExecutedQuery lastBookingQuery() {
+        return executed.reversed().stream()
+                .filter(query -> query.sql().contains("bookings"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Prepares the statement with its placeholders numbered and explains its execution with the
+     * bound values, so the plan is the one PostgreSQL uses for a prepared statement.
+     */
+    private static String explain(ExecutedQuery query, String planCacheMode) {
+        StringBuilder sql = new StringBuilder();
+        int parameter = 0;
+        for (char c : query.sql().toCharArray()) {
+            if (c == '?') {
+                sql.append('$').append(++parameter);
+            } else {
+                sql.append(c);
+            }
+        }
+        String arguments = query.parameters().values().stream()
+                .map(BookingPartitionPruningTest::literal)
+                .collect(Collectors.joining(", "));
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = " + planCacheMode);
+                statement.execute("PREPARE booking_query AS " + sql);
+                try {
+                    ResultSet rs = statement.executeQuery(
+                            "EXPLAIN (ANALYZE, COSTS OFF) EXECUTE booking_query(" + arguments + ")");
+                    StringBuilder lines = new StringBuilder();
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                    return lines.toString();
+                } finally {
+                    statement.execute("DEALLOCATE booking_query");
+                }
+            }
+        });
+    }
+
+    private static String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        return value instanceof Number ? value.toString() : "'" + value.toString().replace("'", "''") + "'";
+    }
+
+    private record ExecutedQuery(String sql, Map<Integer, Object> parameters) {
+    }
+
+    private static DataSource capturing(DataSource dataSource) {
+        return proxy(DataSource.class, (method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return method.getName().equals("getConnection") ? capturing((Connection) result) : result;
+        });
+    }
+
+    private static Connection capturing(Connection connection) {
+        return proxy(Connection.class, (method, args) -> {
+            Object result = invoke(connection, method, args);
+            return method.getName().equals("prepareStatement")
+                    ? capturing((PreparedStatement) result, (String) args[0]) : result;
+        });
+    }
+
+    private static PreparedStatement capturing(PreparedStatement statement, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("executeQuery")) {
+                executed.add(new ExecutedQuery(sql, new TreeMap<>(parameters)));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.handle(method, args)));
+    }
+}
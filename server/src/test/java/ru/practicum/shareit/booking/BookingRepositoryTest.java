@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.item.model.Item;
@@ -38,8 +40,8 @@ class BookingRepositoryTest {
 
         owner = em.persist(new User(null, "User1", "user1@email.com"));
         booker = em.persist(new User(null, "User2", "user2@email.com"));
-        savedItem = em.persist(new Item(null, "laptop", "powerful laptop", true, owner, null));
-        savedBooking = em.persist(new Booking(null, LocalDateTime.now().plusDays(1L), LocalDateTime.now().plusDays(2L), savedItem, Status.APPROVED, booker));
+        savedItem = em.persist(new Item(null, "laptop", "powerful laptop", true, owner, null, null, null));
+        savedBooking = em.persist(new Booking(null, LocalDateTime.now().plusDays(1L), LocalDateTime.now().plusDays(2L), savedItem, Status.APPROVED, booker, null));
 
         em.flush();
     }
@@ -60,13 +62,13 @@ class BookingRepositoryTest {
         boolean isFalse = repository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), savedItem.getId(), now);
         assertThat(isFalse, equalTo(false));
 
-        Booking rejectedBooking = em.merge(new Booking(null, now.minusDays(2L), now.minusDays(1L), savedItem, Status.REJECTED, booker));
+        Booking rejectedBooking = em.merge(new Booking(null, now.minusDays(2L), now.minusDays(1L), savedItem, Status.REJECTED, booker, null));
         boolean isRejected = repository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), savedItem.getId(), now);
         assertThat(isRejected, equalTo(false));
 
         em.flush();
 
-        Booking pastBooking = em.merge(new Booking(null, now.minusDays(2L), now.minusDays(1L), savedItem, Status.APPROVED, booker));
+        Booking pastBooking = em.merge(new Booking(null, now.minusDays(2L), now.minusDays(1L), savedItem, Status.APPROVED, booker, null));
         boolean isTrue = repository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), savedItem.getId(), now);
         assertThat(isTrue, equalTo(true));
 
@@ -83,7 +85,7 @@ class BookingRepositoryTest {
 
     @Test
     void findNextBookingByItemId() {
-        Item innerSavedItem = em.persist(new Item(null, "inner", "inner", true, owner, null));
+        Item innerSavedItem = em.persist(new Item(null, "inner", "inner", true, owner, null, null, null));
 
         LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         Booking booking = em.merge(new Booking(
@@ -92,7 +94,8 @@ class BookingRepositoryTest {
                 now.plusHours(2),
                 innerSavedItem,
                 Status.APPROVED,
-                booker
+                booker,
+                null
         ));
         em.flush();
 
@@ -107,13 +110,27 @@ class BookingRepositoryTest {
 
     @Test
     void findLastBookingByItemId() {
-        Item innerSavedItem = em.persist(new Item(null, "inner", "inner", true, owner, null));
+        Item innerSavedItem = em.persist(new Item(null, "inner", "inner", true, owner, null, null, null));
         LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);;
-        Booking pastBooking = em.merge(new Booking(null, now.minusDays(2L), now.minusDays(1L), savedItem, Status.APPROVED, booker));
+        Booking pastBooking = em.merge(new Booking(null, now.minusDays(2L), now.minusDays(1L), savedItem, Status.APPROVED, booker, null));
         Optional<BookingPeriod> past = repository.findLastBookingByItemId(savedItem.getId(), now);
 
         assertThat(past, notNullValue());
         assertThat(pastBooking.getStart().truncatedTo(ChronoUnit.SECONDS), equalTo(past.get().getStart().truncatedTo(ChronoUnit.SECONDS)));
     }
 
-}
\ No newline at end of file
+    @Test
+    void findAllByItemOwnerIdAndStartBetweenAndEndAfter() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking current = em.persist(new Booking(null, now.minusDays(1L), now.plusDays(1L), savedItem, Status.APPROVED, booker, null));
+        em.persist(new Booking(null, now.minusDays(3L), now.minusDays(2L), savedItem, Status.APPROVED, booker, null));
+        em.flush();
+
+        List<Booking> bookings = repository.findAllByItemOwnerIdAndStartBetweenAndEndAfter(owner.getId(), now.minusDays(92), now, now,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getId(), equalTo(current.getId()));
+    }
+
+}
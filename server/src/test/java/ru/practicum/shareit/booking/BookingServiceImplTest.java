@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
@@ -9,26 +10,41 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.UtilTestDataClass;
+import ru.practicum.shareit.booking.dto.AvailabilityRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingSlice;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdate;
+import ru.practicum.shareit.booking.dto.ItemAvailability;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.BatchConflictException;
+import ru.practicum.shareit.exception.BatchException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.IllegalAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.NewItemRequest;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
@@ -39,6 +55,11 @@ class BookingServiceImplTest {
     private final BookingService service;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingArchiver archiver;
+    private final ItemBookingPointers itemPointers;
+    private final BookingCounters counters;
+    private final BookingExporter exporter;
+    private final ObjectMapper objectMapper;
 
     private NewBookingRequest newBooking;
     private NewUserRequest newUserRequest;
@@ -258,7 +279,7 @@ class BookingServiceImplTest {
                 .build();
 
         assertThrows(NotFoundException.class,
-                () -> service.findAllByUserId(sneaky.getId(), "WAITING"));
+                () -> service.findAllByUserId(sneaky.getId(), "WAITING", 0, 10));
 
         BookingDto booking1 = service.createBookingRequest(
                 bookerId,
@@ -270,7 +291,7 @@ class BookingServiceImplTest {
                 new NewBookingRequest(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), item.getId())
         );
 
-        List<BookingDto> bookings = service.findAllByUserId(bookerId, "ALL");
+        List<BookingDto> bookings = service.findAllByUserId(bookerId, "ALL", 0, 10);
 
         TypedQuery<Booking> query = em.createQuery(
                 "SELECT b FROM Booking b WHERE b.booker.id = :bookerId ORDER BY b.start DESC",
@@ -294,7 +315,7 @@ class BookingServiceImplTest {
         );
 
         assertThrows(IllegalArgumentException.class,
-                () -> service.findAllByUserId(bookerId, "Wrong"));
+                () -> service.findAllByUserId(bookerId, "Wrong", 0, 10));
 
     }
 
@@ -307,7 +328,7 @@ class BookingServiceImplTest {
         ItemDto newItem = itemService.create(this.newItem, ownerId);
         newBooking.setItemId(newItem.getId());
         service.createBookingRequest(bookerId, newBooking);
-        List<BookingDto> bookings = service.findAllByOwnerId(ownerId, "WAITING");
+        List<BookingDto> bookings = service.findAllByOwnerId(ownerId, "WAITING", 0, 10);
 
         TypedQuery<Booking> query = em.createQuery("select b from Booking b where b.booker.id = :bookerId", Booking.class);
         List<Booking> result = query.setParameter("bookerId", bookerId).getResultList();
@@ -346,7 +367,7 @@ class BookingServiceImplTest {
         UserDto user = userService.create(newUserRequest);
         int userId = user.getId();
 
-        assertThrows(IllegalArgumentException.class, () -> service.findAllByUserId(userId, "state"));
+        assertThrows(IllegalArgumentException.class, () -> service.findAllByUserId(userId, "state", 0, 10));
     }
 
     @Test
@@ -359,10 +380,379 @@ class BookingServiceImplTest {
 
         em.flush();
 
-        assertThat(service.findAllByOwnerId(owner1.getId(), "FUTURE"), hasSize(1));
+        assertThat(service.findAllByOwnerId(owner1.getId(), "FUTURE", 0, 10), hasSize(1));
 
         service.updateBookingStatus(future.getId(), owner1.getId(), false);
-        assertThat(service.findAllByOwnerId(owner1.getId(), "REJECTED"), hasSize(1));
+        assertThat(service.findAllByOwnerId(owner1.getId(), "REJECTED", 0, 10), hasSize(1));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByUserId_shouldPageNewestFirst() {
+        BookingDto first = service.createBookingRequest(bookerId,
+                new NewBookingRequest(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item.getId()));
+        BookingDto second = service.createBookingRequest(bookerId,
+                new NewBookingRequest(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), item.getId()));
+        BookingDto third = service.createBookingRequest(bookerId,
+                new NewBookingRequest(LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), item.getId()));
+        em.flush();
+
+        List<BookingDto> firstPage = service.findAllByUserId(bookerId, "FUTURE", 0, 2);
+        List<BookingDto> secondPage = service.findAllByUserId(bookerId, "FUTURE", 1, 2);
+
+        assertThat(firstPage, hasSize(2));
+        assertThat(firstPage.get(0).getId(), equalTo(third.getId()));
+        assertThat(firstPage.get(1).getId(), equalTo(second.getId()));
+        assertThat(secondPage, hasSize(1));
+        assertThat(secondPage.getFirst().getId(), equalTo(first.getId()));
+        assertThat(service.findAllByUserId(bookerId, "PAST", 0, 10), hasSize(0));
+        assertThat(service.findAllByUserId(bookerId, "CURRENT", 0, 10), hasSize(0));
+    }
+
+    @Test
+    void scrollAllByUserId_shouldFollowCursorToTheEnd() {
+        BookingDto first = service.createBookingRequest(bookerId,
+                new NewBookingRequest(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item.getId()));
+        BookingDto second = service.createBookingRequest(bookerId,
+                new NewBookingRequest(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), item.getId()));
+        BookingDto third = service.createBookingRequest(bookerId,
+                new NewBookingRequest(LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), item.getId()));
+        em.flush();
+
+        BookingSlice firstSlice = service.scrollAllByUserId(bookerId, "ALL", "", 2);
+        assertThat(firstSlice.getBookings(), hasSize(2));
+        assertThat(firstSlice.getBookings().get(0).getId(), equalTo(third.getId()));
+        assertThat(firstSlice.getBookings().get(1).getId(), equalTo(second.getId()));
+        assertThat(firstSlice.getNextCursor(), notNullValue());
+
+        BookingSlice secondSlice = service.scrollAllByUserId(bookerId, "ALL", firstSlice.getNextCursor(), 2);
+        assertThat(secondSlice.getBookings(), hasSize(1));
+        assertThat(secondSlice.getBookings().getFirst().getId(), equalTo(first.getId()));
+        assertThat(secondSlice.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void createBooking_shouldCutStartAndEndToMicroseconds() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(123_456_789);
+        BookingDto booking = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(1), item.getId()));
+
+        assertThat(booking.getStart(), equalTo(start.withNano(123_456_000)));
+        assertThat(booking.getEnd(), equalTo(start.plusDays(1).withNano(123_456_000)));
+    }
+
+    @Test
+    void scrollAllByOwnerId_FailMalformedCursor() {
+        assertThrows(BadRequestException.class,
+                () -> service.scrollAllByOwnerId(bookerId, "FUTURE", "not-a-cursor", 2));
+    }
+
+    @Test
+    void createBooking_FailLongerThanMaxDuration() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(BadRequestException.class, () -> service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(93), item.getId())));
+    }
+
+    @Test
+    void createBooking_FailOverlapsExistingBooking() {
+        UserDto owner = userService.create(new NewUserRequest("owner", "owner@email.com"));
+        ItemDto ownersItem = itemService.create(new NewItemRequest("Item", "Desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        service.createBookingRequest(bookerId, new NewBookingRequest(start, start.plusDays(2), ownersItem.getId()));
+
+        assertThrows(ConflictException.class, () -> service.createBookingRequest(bookerId,
+                new NewBookingRequest(start.plusDays(1), start.plusDays(3), ownersItem.getId())));
+
+        BookingDto adjacent = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start.plusDays(2), start.plusDays(3), ownersItem.getId()));
+        assertThat(adjacent.getId(), notNullValue());
+    }
+
+    @Test
+    void updateBookingStatus_rejectionFreesPeriod() {
+        UserDto owner = userService.create(new NewUserRequest("owner", "owner@email.com"));
+        ItemDto ownersItem = itemService.create(new NewItemRequest("Item", "Desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto rejected = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(2), ownersItem.getId()));
+        service.updateBookingStatus(rejected.getId(), owner.getId(), false);
+
+        BookingDto replacement = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(2), ownersItem.getId()));
+
+        assertThat(replacement.getStatus(), equalTo("WAITING"));
+        assertThrows(ConflictException.class,
+                () -> service.updateBookingStatus(rejected.getId(), owner.getId(), true));
+    }
+
+    @Test
+    void createBookingRequests_shouldCreateAll() {
+        UserDto owner = userService.create(new NewUserRequest("owner", "owner@email.com"));
+        ItemDto first = itemService.create(new NewItemRequest("First", "Desc", true, null), owner.getId());
+        ItemDto second = itemService.create(new NewItemRequest("Second", "Desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<BookingDto> created = service.createBookingRequests(bookerId, List.of(
+                new NewBookingRequest(start, start.plusDays(1), first.getId()),
+                new NewBookingRequest(start, start.plusDays(1), second.getId()),
+                new NewBookingRequest(start.plusDays(1), start.plusDays(2), first.getId())));
+        em.flush();
+
+        assertThat(created, hasSize(3));
+        assertThat(created.get(2).getItem().getId(), equalTo(first.getId()));
+        assertThat(service.findAllByUserId(bookerId, "WAITING", 0, 10), hasSize(3));
+    }
+
+    @Test
+    void createBookingRequests_FailReportsEveryBadEntry() {
+        UserDto owner = userService.create(new NewUserRequest("owner", "owner@email.com"));
+        ItemDto available = itemService.create(new NewItemRequest("First", "Desc", true, null), owner.getId());
+        ItemDto unavailable = itemService.create(new NewItemRequest("Second", "Desc", false, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        BatchException e = assertThrows(BatchException.class, () -> service.createBookingRequests(bookerId, List.of(
+                new NewBookingRequest(start, start.plusDays(1), available.getId()),
+                new NewBookingRequest(start, start.plusDays(1), unavailable.getId()),
+                new NewBookingRequest(start, start.plusDays(1), 999_999))));
+
+        assertThat(e.getErrors(), hasSize(3));
+        assertThat(e.getErrors().get(0), nullValue());
+        assertThat(e.getErrors().get(1), notNullValue());
+        assertThat(e.getErrors().get(2), notNullValue());
+    }
+
+    @Test
+    void createBookingRequests_FailOverlapInsideBatch() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        BatchConflictException e = assertThrows(BatchConflictException.class, () -> service.createBookingRequests(bookerId, List.of(
+                new NewBookingRequest(start, start.plusDays(2), item.getId()),
+                new NewBookingRequest(start.plusDays(1), start.plusDays(3), item.getId()))));
+
+        assertThat(e.getErrors().get(0), nullValue());
+        assertThat(e.getErrors().get(1), notNullValue());
+    }
+
+    @Test
+    void updateBookingStatuses_shouldReportOutcomePerBooking() {
+        UserDto owner = userService.create(new NewUserRequest("owner", "owner@email.com"));
+        ItemDto ownersItem = itemService.create(new NewItemRequest("Item", "Desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto first = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(1), ownersItem.getId()));
+        BookingDto second = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start.plusDays(1), start.plusDays(2), ownersItem.getId()));
+        BookingDto foreign = service.createBookingRequest(owner.getId(),
+                new NewBookingRequest(start, start.plusDays(1), item.getId()));
+
+        List<BookingStatusUpdate> updates = service.updateBookingStatuses(
+                List.of(first.getId(), foreign.getId(), 999_999, second.getId()), owner.getId(), true);
+
+        assertThat(updates, hasSize(4));
+        assertThat(updates.get(0).getStatus(), equalTo("APPROVED"));
+        assertThat(updates.get(1).getError(), notNullValue());
+        assertThat(updates.get(2).getError(), notNullValue());
+        assertThat(updates.get(3).getStatus(), equalTo("APPROVED"));
+        assertThat(service.findById(first.getId(), owner.getId()).getStatus(), equalTo("APPROVED"));
+        assertThat(service.findById(foreign.getId(), owner.getId()).getStatus(), equalTo("WAITING"));
+    }
+
+    @Test
+    void updateBookingStatuses_rejectionFreesPeriodAndReapprovalConflicts() {
+        UserDto owner = userService.create(new NewUserRequest("owner", "owner@email.com"));
+        ItemDto ownersItem = itemService.create(new NewItemRequest("Item", "Desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto rejected = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(2), ownersItem.getId()));
+        service.updateBookingStatuses(List.of(rejected.getId()), owner.getId(), false);
+        BookingDto replacement = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(2), ownersItem.getId()));
+
+        List<BookingStatusUpdate> updates = service.updateBookingStatuses(
+                List.of(replacement.getId(), rejected.getId()), owner.getId(), true);
+
+        assertThat(updates.get(0).getStatus(), equalTo("APPROVED"));
+        assertThat(updates.get(1).getStatus(), nullValue());
+        assertThat(updates.get(1).getError(), notNullValue());
+        assertThat(service.findById(rejected.getId(), owner.getId()).getStatus(), equalTo("REJECTED"));
+    }
+
+    @Test
+    void findAllByUserId_shouldContinueIntoArchive() {
+        Item bookedItem = em.find(Item.class, item.getId());
+        User user = em.find(User.class, bookerId);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Booking> old = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            old.add(em.merge(new Booking(null, now.minusYears(2).minusDays(i * 2L), now.minusYears(2).minusDays(i * 2L - 1),
+                    bookedItem, Status.APPROVED, user, null)));
+        }
+        Booking recent = em.merge(new Booking(null, now.minusDays(3), now.minusDays(2), bookedItem, Status.APPROVED, user, null));
+        archiver.archive();
+        em.flush();
+        em.clear();
+
+        assertThat(service.findAllByUserId(bookerId, "PAST", 0, 2).stream().map(BookingDto::getId).toList(),
+                equalTo(List.of(recent.getId(), old.get(0).getId())));
+        assertThat(service.findAllByUserId(bookerId, "ALL", 1, 2).stream().map(BookingDto::getId).toList(),
+                equalTo(List.of(old.get(1).getId(), old.get(2).getId())));
+        assertThat(service.findAllByUserId(bookerId, "CURRENT", 0, 2), hasSize(0));
+        assertThat(service.findById(old.get(2).getId(), bookerId).getStart(), equalTo(old.get(2).getStart()));
+    }
+
+    @Test
+    void scrollAll_shouldContinueIntoArchive() {
+        Item bookedItem = em.find(Item.class, item.getId());
+        User user = em.find(User.class, bookerId);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Integer> expected = new ArrayList<>();
+        expected.add(em.merge(new Booking(null, now.minusDays(3), now.minusDays(2), bookedItem, Status.APPROVED, user, null)).getId());
+        for (int i = 1; i <= 3; i++) {
+            expected.add(em.merge(new Booking(null, now.minusYears(2).minusDays(i * 2L), now.minusYears(2).minusDays(i * 2L - 1),
+                    bookedItem, Status.APPROVED, user, null)).getId());
+        }
+        archiver.archive();
+        em.flush();
+        em.clear();
+
+        BookingSlice first = service.scrollAllByUserId(bookerId, "ALL", "", 2);
+        BookingSlice second = service.scrollAllByUserId(bookerId, "ALL", first.getNextCursor(), 2);
+        assertThat(first.getBookings().stream().map(BookingDto::getId).toList(), equalTo(expected.subList(0, 2)));
+        assertThat(second.getBookings().stream().map(BookingDto::getId).toList(), equalTo(expected.subList(2, 4)));
+        assertThat(second.getNextCursor(), nullValue());
+
+        List<Integer> scrolled = new ArrayList<>();
+        String cursor = "";
+        do {
+            BookingSlice slice = service.scrollAllByOwnerId(bookerId, "PAST", cursor, 1);
+            slice.getBookings().forEach(booking -> scrolled.add(booking.getId()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        assertThat(scrolled, equalTo(expected));
+        assertThrows(BadRequestException.class, () -> service.scrollAllByUserId(bookerId, "FUTURE", first.getNextCursor(), 2));
+    }
+
+    @Test
+    void refreshPointers_shouldTakeLastBookingFromArchive() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        em.merge(new Booking(null, now.minusYears(2).minusDays(2), now.minusYears(2).minusDays(1),
+                em.find(Item.class, item.getId()), Status.APPROVED, em.find(User.class, bookerId), null));
+        archiver.archive();
+        itemPointers.refresh(item.getId());
+        em.flush();
+        em.clear();
+
+        assertThat(itemService.get(item.getId(), bookerId).getLastBooking(),
+                equalTo(new BookingPeriod(now.minusYears(2).minusDays(2), now.minusYears(2).minusDays(1))));
+    }
+
+    @Test
+    void countByUserId_shouldFollowCreationAndRejection() {
+        UserDto owner = userService.create(new NewUserRequest("Owner", "counted-owner@email.com"));
+        ItemDto ownersItem = itemService.create(new NewItemRequest("Item", "Desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto first = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(1), ownersItem.getId()));
+        service.createBookingRequest(bookerId, new NewBookingRequest(start.plusDays(2), start.plusDays(3), ownersItem.getId()));
+        service.updateBookingStatus(first.getId(), owner.getId(), false);
+
+        BookingStateCounts bookerCounts = service.countByUserId(bookerId);
+        BookingStateCounts ownerCounts = service.countByOwnerId(owner.getId());
+
+        assertThat(bookerCounts, equalTo(new BookingStateCounts(2, 0, 0, 2, 1, 1)));
+        assertThat(ownerCounts, equalTo(bookerCounts));
+        assertThat(service.countByOwnerId(bookerId), equalTo(new BookingStateCounts(0, 0, 0, 0, 0, 0)));
+        assertThrows(NotFoundException.class, () -> service.countByUserId(999));
+    }
+
+    @Test
+    void reconcile_shouldMoveStartedAndEndedBookings() throws InterruptedException {
+        UserDto owner = userService.create(new NewUserRequest("Owner", "reconciled-owner@email.com"));
+        ItemDto ownersItem = itemService.create(new NewItemRequest("Item", "Desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusSeconds(1);
+        service.createBookingRequest(bookerId, new NewBookingRequest(start, start.plusSeconds(1), ownersItem.getId()));
+        ItemDto anotherItem = itemService.create(new NewItemRequest("Another", "Desc", true, null), owner.getId());
+        service.createBookingRequest(bookerId, new NewBookingRequest(start, start.plusDays(1), anotherItem.getId()));
+        em.flush();
+
+        Thread.sleep(2100);
+        counters.reconcile();
+
+        assertThat(service.countByUserId(bookerId), equalTo(new BookingStateCounts(2, 1, 1, 0, 2, 0)));
+    }
+
+    @Test
+    void expireBookings_shouldExpireOnlyWaitingBookings() {
+        UserDto owner = userService.create(new NewUserRequest("Owner", "expiring-owner@email.com"));
+        ItemDto ownersItem = itemService.create(new NewItemRequest("Item", "Desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto waiting = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(1), ownersItem.getId()));
+        BookingDto approved = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start.plusDays(2), start.plusDays(3), ownersItem.getId()));
+        service.updateBookingStatus(approved.getId(), owner.getId(), true);
+
+        assertThat(service.expireBookings(List.of(waiting.getId(), approved.getId())), equalTo(1));
+        assertThat(service.expireBookings(List.of(waiting.getId())), equalTo(0));
+
+        assertThat(service.findById(waiting.getId(), bookerId).getStatus(), equalTo("EXPIRED"));
+        assertThat(service.findById(approved.getId(), bookerId).getStatus(), equalTo("APPROVED"));
+        assertThat(service.countByOwnerId(owner.getId()).getWaiting(), equalTo(0L));
+        assertThrows(BadRequestException.class, () -> service.updateBookingStatus(waiting.getId(), owner.getId(), true));
+        assertThat(service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(1), ownersItem.getId())).getStatus(), equalTo("WAITING"));
+    }
+
+    @Test
+    void exportByOwnerId_shouldWriteOneLinePerBookingIncludingArchived() throws Exception {
+        UserDto owner = userService.create(new NewUserRequest("Owner", "exporting-owner@email.com"));
+        ItemDto ownersItem = itemService.create(new NewItemRequest("Item", "Desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingDto upcoming = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(1), ownersItem.getId()));
+        Booking old = em.merge(new Booking(null, start.minusYears(3), start.minusYears(3).plusDays(1),
+                em.find(Item.class, ownersItem.getId()), Status.APPROVED, em.find(User.class, bookerId), null));
+        archiver.archive();
+        em.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.exportByOwnerId(owner.getId()).writeTo(out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines.length, equalTo(2));
+        BookingDto first = objectMapper.readValue(lines[0], BookingDto.class);
+        BookingDto second = objectMapper.readValue(lines[1], BookingDto.class);
+        assertThat(first.getId(), equalTo(upcoming.getId()));
+        assertThat(first.getStart(), equalTo(start));
+        assertThat(first.getItem().getOwnerId(), equalTo(owner.getId()));
+        assertThat(first.getStatus(), equalTo("WAITING"));
+        assertThat(second.getId(), equalTo(old.getId()));
+        assertThat(second.getBooker().getEmail(), equalTo(newUserRequest.getEmail()));
+        assertThrows(NotFoundException.class, () -> exporter.exportByOwnerId(999));
+    }
+
+    @Test
+    void checkAvailability_shouldReportItemsFreeForWholeWindow() {
+        UserDto owner = userService.create(new NewUserRequest("Owner", "available-owner@email.com"));
+        int booked = itemService.create(new NewItemRequest("Booked", "Desc", true, null), owner.getId()).getId();
+        int rejected = itemService.create(new NewItemRequest("Rejected", "Desc", true, null), owner.getId()).getId();
+        int unavailable = itemService.create(new NewItemRequest("Unavailable", "Desc", false, null), owner.getId()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        service.createBookingRequest(bookerId, new NewBookingRequest(start.plusDays(1), start.plusDays(2), booked));
+        BookingDto rejectedBooking = service.createBookingRequest(bookerId,
+                new NewBookingRequest(start, start.plusDays(3), rejected));
+        service.updateBookingStatus(rejectedBooking.getId(), owner.getId(), false);
+
+        List<ItemAvailability> availability = service.checkAvailability(new AvailabilityRequest(start, start.plusDays(3),
+                List.of(booked, rejected, unavailable, 999, rejected)));
+
+        assertThat(availability, equalTo(List.of(new ItemAvailability(booked, false), new ItemAvailability(rejected, true),
+                new ItemAvailability(unavailable, false), new ItemAvailability(999, false))));
+        assertThat(service.checkAvailability(new AvailabilityRequest(start, start.plusDays(1), List.of(booked))),
+                equalTo(List.of(new ItemAvailability(booked, true))));
+        assertThrows(BadRequestException.class,
+                () -> service.checkAvailability(new AvailabilityRequest(start, start, List.of(booked))));
+    }
+}
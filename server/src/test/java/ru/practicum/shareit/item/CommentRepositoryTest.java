@@ -41,9 +41,9 @@ class CommentRepositoryTest {
     void setUp() {
         owner = em.persist(new User(null, "User1", "user1@email.com"));
         booker = em.persist(new User(null, "User2", "user2@email.com"));
-        savedItem = em.persist(new Item(null, "laptop", "powerful laptop", true, owner, null));
+        savedItem = em.persist(new Item(null, "laptop", "powerful laptop", true, owner, null, null, null));
         now = LocalDateTime.now();
-        savedBooking = em.persist(new Booking(null, now.minusDays(2L), now.minusDays(1L), savedItem, Status.APPROVED, booker));
+        savedBooking = em.persist(new Booking(null, now.minusDays(2L), now.minusDays(1L), savedItem, Status.APPROVED, booker, null));
         savedComment = em.persist(new Comment(null, "good laptop", savedItem, booker, LocalDateTime.now()));
 
         em.flush();
@@ -11,14 +11,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.UtilTestDataClass;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoCommentBooking;
+import ru.practicum.shareit.item.dto.ItemSearchFacets;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItem;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
@@ -195,6 +199,25 @@ class ItemControllerTest {
         verify(service).get(999, 1);
     }
 
+    @SneakyThrows
+    @Test
+    void getAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(service.getAvailability(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new BookingPeriod(from, from.plusDays(1))));
+
+        mvc.perform(get("/items/{itemId}/availability", dto.getId())
+                        .header("X-Sharer-User-Id", dto.getOwnerId())
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-05T10:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T10:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-02T10:00:00")));
+
+        verify(service).getAvailability(dto.getId(), from, from.plusDays(4));
+    }
+
     @SneakyThrows
     @Test
     void search() {
@@ -217,6 +240,71 @@ class ItemControllerTest {
 
     }
 
+    @SneakyThrows
+    @Test
+    void searchWithFacets() {
+        ItemSearchPage page = ItemSearchPage.builder()
+                .items(items)
+                .facets(ItemSearchFacets.builder()
+                        .available(1)
+                        .unavailable(2)
+                        .withoutRequest(1)
+                        .owners(List.of(new ItemSearchFacets.OwnerBucket(dto.getOwnerId(), 1)))
+                        .build())
+                .build();
+        when(service.searchWithFacets(anyString(), anyInt(), anyInt()))
+                .thenReturn(page);
+
+        mvc.perform(get("/items/search")
+                        .param("text", "scarf")
+                        .param("facets", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(dto.getId()), Integer.class))
+                .andExpect(jsonPath("$.facets.available", is(1)))
+                .andExpect(jsonPath("$.facets.unavailable", is(2)))
+                .andExpect(jsonPath("$.facets.withRequest", is(0)))
+                .andExpect(jsonPath("$.facets.owners[0].ownerId", is(dto.getOwnerId())));
+
+        verify(service).searchWithFacets("scarf", 0, 10);
+        verify(service, times(0)).search(anyString(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void fuzzySearch() {
+        when(service.fuzzySearch(anyString(), anyInt(), anyInt()))
+                .thenReturn(items);
+
+        mvc.perform(get("/items/search")
+                        .param("text", "scraf")
+                        .param("fuzzy", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(dto.getId()), Integer.class));
+
+        verify(service).fuzzySearch("scraf", 0, 10);
+        verify(service, times(0)).search(anyString(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void suggest() {
+        when(service.suggest(anyString(), anyInt()))
+                .thenReturn(List.of("scarf", "scarf holder"));
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "sca")
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is("scarf")))
+                .andExpect(jsonPath("$[1]", is("scarf holder")));
+
+        verify(service).suggest("sca", 5);
+    }
+
     @SneakyThrows
     @Test
     void deleteItem() {
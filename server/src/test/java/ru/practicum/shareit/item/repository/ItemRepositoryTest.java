@@ -120,18 +120,24 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findAllByNameOrDescriptionContaining() {
-        List<Item> items = repository.findAllByNameOrDescriptionContaining(
+    void findAvailableIdsByNameOrDescriptionContaining() {
+        em.persist(Item.builder()
+                .name("old laptop")
+                .description("laptop with a broken screen")
+                .available(false)
+                .owner(savedItem2.getOwner())
+                .build());
+
+        List<Integer> ids = repository.findAvailableIdsByNameOrDescriptionContaining(
                 "laptop",
                 PageRequest.of(0, 1));
 
-        assertThat(items, hasSize(1));
-        assertThat(items, hasItem(hasProperty("id", equalTo(savedItem2.getId()))));
+        assertThat(ids, equalTo(List.of(savedItem2.getId())));
 
-        List<Item> items2 = repository.findAllByNameOrDescriptionContaining(
+        List<Integer> ids2 = repository.findAvailableIdsByNameOrDescriptionContaining(
                 "laptop",
                 PageRequest.of(1, 1));
 
-        assertThat(items2, empty());
+        assertThat(ids2, empty());
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class FacetCountsTest {
+
+    @Test
+    void topOwners_shouldRankByItemsThenOwnerId() {
+        FacetCounts facets = new FacetCounts();
+        IntStream.rangeClosed(1, 1000).forEach(ownerId -> facets.addAvailable(ownerId % 3 == 0, ownerId));
+        IntStream.range(0, 5).forEach(i -> facets.addAvailable(false, 700));
+        IntStream.range(0, 2).forEach(i -> facets.addAvailable(false, 42));
+        IntStream.range(0, 2).forEach(i -> facets.addAvailable(false, 7));
+        facets.addUnavailable(3);
+
+        assertThat(facets.topOwners(4), contains(
+                new FacetCounts.OwnerCount(700, 6),
+                new FacetCounts.OwnerCount(7, 3),
+                new FacetCounts.OwnerCount(42, 3),
+                new FacetCounts.OwnerCount(1, 1)));
+        assertThat(facets.available(), equalTo(1009));
+        assertThat(facets.unavailable(), equalTo(3));
+        assertThat(facets.withRequest(), equalTo(333));
+        assertThat(facets.withoutRequest(), equalTo(676));
+    }
+
+    @Test
+    void topOwners_shouldBeEmptyWithoutMatches() {
+        assertThat(new FacetCounts().topOwners(5), empty());
+        assertThat(new FacetCounts().topOwners(0), equalTo(List.of()));
+    }
+}
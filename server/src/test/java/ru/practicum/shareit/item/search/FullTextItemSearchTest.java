@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.EmbeddedPostgresExtension;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class FullTextItemSearchTest {
+    @RegisterExtension
+    static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+
+    private static JdbcTemplate jdbcTemplate;
+    private static FullTextItemSearch search;
+
+    @BeforeAll
+    static void setUp() {
+        jdbcTemplate = postgres.getJdbcTemplate();
+        insertItem(1, "Garden hose", "Long hose for a cordless drill station");
+        insertItem(2, "Cordless drill", "Drill with two batteries");
+        insertItem(3, "Ladder", "Aluminium, three metres");
+        // The embedded server runs in the C locale, which only lower-cases ASCII in the search vector
+        insertItem(4, "Дрель ударная", "очень мощная дрель");
+        insertItem(5, "Broken drill", "Waiting for repair", false);
+        search = new FullTextItemSearch(jdbcTemplate, new TextAnalyzer(List.of("normalize", "stop-words", "stem")));
+    }
+
+    @Test
+    void search_shouldRankNameMatchesFirst() {
+        assertThat(search.search("drill", PageRequest.of(0, 10)), equalTo(List.of(2, 1)));
+        assertThat(search.search("drill", PageRequest.of(1, 1)), equalTo(List.of(1)));
+    }
+
+    @Test
+    void search_shouldMatchWordPrefixesOfEveryTerm() {
+        assertThat(search.search("CORDLESS dri", PageRequest.of(0, 10)), equalTo(List.of(2, 1)));
+        assertThat(search.search("alumin metres", PageRequest.of(0, 10)), equalTo(List.of(3)));
+        assertThat(search.search("дрель", PageRequest.of(0, 10)), equalTo(List.of(4)));
+        assertThat(search.search("drill ladder", PageRequest.of(0, 10)), empty());
+    }
+
+    @Test
+    void search_shouldMatchInflectedFormsAndSkipStopWords() {
+        assertThat(search.search("дрели", PageRequest.of(0, 10)), equalTo(List.of(4)));
+        assertThat(search.search("мощной дрелью", PageRequest.of(0, 10)), equalTo(List.of(4)));
+        assertThat(search.search("drill with a battery", PageRequest.of(0, 10)), equalTo(List.of(2)));
+    }
+
+    @Test
+    void search_shouldCountFacetsWhileCollectingThePage() {
+        FacetCounts facets = new FacetCounts();
+
+        assertThat(search.search("drill", PageRequest.of(1, 1), facets), equalTo(List.of(1)));
+        assertThat(facets.available(), equalTo(2));
+        assertThat(facets.unavailable(), equalTo(1));
+        assertThat(facets.withoutRequest(), equalTo(2));
+        assertThat(facets.topOwners(5), equalTo(List.of(new FacetCounts.OwnerCount(1, 2))));
+    }
+
+    @Test
+    void search_shouldIgnoreQuerySyntax() {
+        assertThat(search.search("!(drill:* | ", PageRequest.of(0, 10)), equalTo(List.of(2, 1)));
+        assertThat(search.search("&|!", PageRequest.of(0, 10)), empty());
+        assertThat(search.search("⑴ ⒈ ½", PageRequest.of(0, 10)), empty());
+    }
+
+    @Test
+    void search_shouldUseGinIndex() {
+        String plan = jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                ResultSet rs = statement.executeQuery(
+                        "EXPLAIN SELECT id FROM items WHERE available AND search_vector @@ to_tsquery('simple', 'drill:*')");
+                StringBuilder lines = new StringBuilder();
+                while (rs.next()) {
+                    lines.append(rs.getString(1)).append('\n');
+                }
+                return lines.toString();
+            }
+        });
+
+        assertThat(plan, containsString("idx_items_available_search_vector"));
+    }
+
+    @Test
+    void searchWithFacets_shouldUseBothPartialIndexes() {
+        String plan = jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                ResultSet rs = statement.executeQuery("EXPLAIN SELECT id FROM items i, to_tsquery('simple', 'drill:*') q " +
+                        "WHERE (i.available AND i.search_vector @@ q) OR (NOT i.available AND i.search_vector @@ q)");
+                StringBuilder lines = new StringBuilder();
+                while (rs.next()) {
+                    lines.append(rs.getString(1)).append('\n');
+                }
+                return lines.toString();
+            }
+        });
+
+        assertThat(plan, containsString("idx_items_available_search_vector"));
+        assertThat(plan, containsString("idx_items_unavailable_search_vector"));
+    }
+
+    private static void insertItem(int id, String name, String description) {
+        insertItem(id, name, description, true);
+    }
+
+    private static void insertItem(int id, String name, String description, boolean available) {
+        jdbcTemplate.update("INSERT INTO items (id, user_id, name, description, available) VALUES (?, 1, ?, ?, ?)",
+                id, name, description, available);
+    }
+}
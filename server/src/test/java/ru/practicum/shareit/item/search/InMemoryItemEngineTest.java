@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemEngineTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final RecordingEngine engine = new RecordingEngine(itemRepository);
+
+    @Test
+    void forEachItem_shouldReadAllBatchesInIdOrder() {
+        when(itemRepository.findAllByIdGreaterThanOrderById(eq(0), any(Limit.class)))
+                .thenReturn(List.of(item(1, "Drill"), item(2, "Ladder")));
+        when(itemRepository.findAllByIdGreaterThanOrderById(eq(2), any(Limit.class)))
+                .thenReturn(List.of(item(5, "Hose")));
+        when(itemRepository.findAllByIdGreaterThanOrderById(eq(5), any(Limit.class)))
+                .thenReturn(List.of());
+        List<Integer> ids = new ArrayList<>();
+
+        engine.forEachItem(item -> ids.add(item.getId()));
+
+        assertThat(ids, contains(1, 2, 5));
+    }
+
+    @Test
+    void index_shouldApplyChangesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.index(item(1, "Renamed drill"));
+            engine.remove(2);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(engine.changes, empty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.index(item(1, "Renamed drill"));
+            engine.remove(2);
+            assertThat(engine.changes, empty());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(engine.changes, contains("put Renamed drill", "delete 2"));
+    }
+
+    private static Item item(int id, String name) {
+        return Item.builder().id(id).name(name).available(true).build();
+    }
+
+    private static final class RecordingEngine extends InMemoryItemEngine {
+        private final List<String> changes = new ArrayList<>();
+
+        private RecordingEngine(ItemRepository itemRepository) {
+            super(itemRepository);
+        }
+
+        @Override
+        protected void put(Item item) {
+            changes.add("put " + item.getName());
+        }
+
+        @Override
+        protected void delete(int itemId) {
+            changes.add("delete " + itemId);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class InMemoryItemEngineTransactionTest {
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void index_shouldKeepChangesOfRolledBackTransactionsOut() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer itemId = transactionTemplate.execute(status -> {
+            User owner = userRepository.save(User.builder().name("owner").email("owner@email.com").build());
+            return itemRepository.save(Item.builder().name("Cordless drill").available(true).owner(owner).build()).getId();
+        });
+        InMemoryItemSearch search = new InMemoryItemSearch(itemRepository,
+                new TextAnalyzer(List.of("normalize", "stop-words", "stem")), "", new SimpleMeterRegistry());
+        search.rebuild();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Item item = itemRepository.findById(itemId).orElseThrow();
+            item.setName("Garden hose");
+            search.index(item);
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.deleteById(itemId);
+            search.remove(itemId);
+            status.setRollbackOnly();
+        });
+
+        assertThat(search.search("drill", PageRequest.of(0, 10)), contains(itemId));
+        assertThat(search.search("hose", PageRequest.of(0, 10)), empty());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Item item = itemRepository.findById(itemId).orElseThrow();
+            item.setName("Garden hose");
+            search.index(item);
+        });
+
+        assertThat(search.search("drill", PageRequest.of(0, 10)), empty());
+        assertThat(search.search("hose", PageRequest.of(0, 10)), contains(itemId));
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.UtilTestDataClass;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+// The index only takes committed changes, so the tests commit into a database of their own
+@SpringBootTest(properties = {"shareit.items.search.engine=memory", "spring.datasource.url=jdbc:h2:mem:in-memory-search"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class InMemoryItemSearchTest {
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemSearch itemSearch;
+
+    private int ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.create(UtilTestDataClass.TestUser.newParis()).getId();
+    }
+
+    @Test
+    void search_shouldFollowCreateUpdateAndDelete() {
+        assertThat(itemSearch, instanceOf(InMemoryItemSearch.class));
+        ItemDto scarf = itemService.create(UtilTestDataClass.TestItem.newScarf(), ownerId);
+        ItemDto beret = itemService.create(UtilTestDataClass.TestItem.newBeret(), ownerId);
+        itemService.update(beret.getId(), UtilTestDataClass.TestItem.updateBeret(), ownerId);
+
+        itemService.create(UtilTestDataClass.TestItem.newBeret(), ownerId);
+
+        assertThat(ids("Blue BEAUTIFUL"), contains(scarf.getId(), beret.getId()));
+        assertThat(ids("beret"), contains(beret.getId()));
+        assertThat(ids("scar"), contains(scarf.getId()));
+        assertThat(ids("another"), contains(beret.getId()));
+        assertThat(ids("blue sweater"), empty());
+
+        itemService.delete(scarf.getId());
+
+        assertThat(ids("blue"), contains(beret.getId()));
+        assertThat(ids("scarf"), empty());
+    }
+
+    @Test
+    void search_shouldCountFacetsOfAvailableAndUnavailableMatches() {
+        ItemDto scarf = itemService.create(UtilTestDataClass.TestItem.newScarf(), ownerId);
+        ItemDto beret = itemService.create(UtilTestDataClass.TestItem.newBeret(), ownerId);
+        FacetCounts facets = new FacetCounts();
+
+        assertThat(itemSearch.search("blue", PageRequest.of(0, 10), facets), contains(scarf.getId()));
+        assertThat(facets.available(), equalTo(1));
+        assertThat(facets.unavailable(), equalTo(1));
+        assertThat(facets.topOwners(5), contains(new FacetCounts.OwnerCount(ownerId, 1)));
+
+        itemService.update(beret.getId(), UtilTestDataClass.TestItem.updateBeret(), ownerId);
+        facets = new FacetCounts();
+
+        assertThat(itemSearch.search("blue", PageRequest.of(1, 1), facets), contains(beret.getId()));
+        assertThat(facets.available(), equalTo(2));
+        assertThat(facets.unavailable(), equalTo(0));
+    }
+
+    @Test
+    void invertedIndex_shouldCountFacetsOfEveryMatchWhileScoring() {
+        InMemoryItemSearch.InvertedIndex index = new InMemoryItemSearch.InvertedIndex();
+        index.put(1, 0, 10, true, List.of("cordless", "drill"), List.of());
+        index.put(2, 0, 10, false, List.of("drill"), List.of());
+        index.put(3, 0, 20, true, List.of("drill", "press"), List.of());
+        index.put(4, 0, 20, false, List.of("ladder"), List.of());
+        FacetCounts facets = new FacetCounts();
+
+        assertThat(index.search(List.of("dri"), 5, 10, facets), empty());
+        assertThat(facets.available(), equalTo(3));
+        assertThat(facets.withRequest(), equalTo(2));
+        assertThat(facets.withoutRequest(), equalTo(1));
+        assertThat(facets.topOwners(1), contains(new FacetCounts.OwnerCount(10, 2)));
+        assertThat(index.count(List.of("dri", "press")), equalTo(1));
+    }
+
+    @Test
+    void invertedIndex_shouldIntersectPrefixPostingsAndPage() {
+        InMemoryItemSearch.InvertedIndex index = new InMemoryItemSearch.InvertedIndex();
+        IntStream.rangeClosed(1, 30).forEach(id ->
+                index.put(id, 0, 1, false, id % 2 == 0 ? List.of("drill", "cordless") : List.of("drill", "corded"), List.of()));
+        index.put(31, 0, 1, false, List.of("hammer"), List.of());
+        index.put(4, 0, 1, false, List.of("hammer", "cordless"), List.of());
+        index.remove(6);
+
+        assertThat(index.search(List.of("cord", "drill"), 0, 100).size(), equalTo(28));
+        assertThat(index.search(List.of("cordless", "drill"), 0, 3), contains(2, 8, 10));
+        assertThat(index.search(List.of("cordless", "drill"), 3, 2), contains(12, 14));
+        assertThat(index.search(List.of("hammer"), 0, 10), contains(31, 4));
+        assertThat(index.search(List.of("saw"), 0, 10), empty());
+        assertThat(index.documentCount(), equalTo(30));
+        assertThat(index.termCount(), equalTo(4));
+    }
+
+    @Test
+    void invertedIndex_shouldRankWithBm25() {
+        InMemoryItemSearch.InvertedIndex index = new InMemoryItemSearch.InvertedIndex();
+        index.put(1, 0, 1, false, List.of("garden", "hose"), List.of("fits", "any", "drill", "station"));
+        index.put(2, 0, 1, false, List.of("cordless", "drill"), List.of("two", "batteries"));
+        index.put(3, 0, 1, false, List.of("drill"), List.of("drill", "with", "a", "cord"));
+        index.put(4, 0, 1, false, List.of("drill", "bits", "set", "for", "metal", "and", "wood"), List.of());
+        index.put(5, 0, 1, false, List.of("ladder"), List.of("aluminium", "ladder", "three", "metres", "tall"));
+
+        assertThat(index.search(List.of("drill"), 0, 10), contains(3, 2, 4, 1));
+        assertThat(index.search(List.of("drill"), 1, 2), contains(2, 4));
+        assertThat(index.search(List.of("drill", "cord"), 0, 10), contains(2, 3));
+        assertThat(index.search(List.of("drill"), 4, 10), empty());
+    }
+
+    private List<Integer> ids(String text) {
+        return itemSearch.search(text, PageRequest.of(0, 10));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class InMemoryTrigramItemSearchTest {
+    private InMemoryTrigramItemSearch.TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryTrigramItemSearch.TrigramIndex(0.3);
+        index.put(1, "Garden hose");
+        index.put(2, "Cordless drill");
+        index.put(3, "Drill");
+        index.put(4, "Ladder");
+        index.put(5, "Drawer");
+    }
+
+    @Test
+    void trigrams_shouldPadWordsLikePgTrgm() {
+        assertThat(List.copyOf(InMemoryTrigramItemSearch.trigrams("drill")),
+                equalTo(List.of("  d", " dr", "dri", "ril", "ill", "ll ")));
+    }
+
+    @Test
+    void search_shouldTolerateTyposAndRankBySimilarity() {
+        assertThat(index.search("drel", 0, 10), contains(2, 3, 5));
+        assertThat(index.search("drill", 0, 10), contains(2, 3, 5));
+        assertThat(index.search("ladr", 0, 10), contains(4));
+        assertThat(index.search("cordles dril", 0, 10), contains(2, 3));
+        assertThat(index.search("drel", 1, 1), contains(3));
+        assertThat(index.search("xyz", 0, 10), empty());
+    }
+
+    @Test
+    void search_shouldFollowUpdatesAndRemovals() {
+        index.put(2, "Hammer");
+        index.remove(5);
+
+        assertThat(index.search("drel", 0, 10), contains(3));
+        assertThat(index.search("hamer", 0, 10), contains(2));
+        assertThat(index.wordCount(), equalTo(5));
+    }
+}
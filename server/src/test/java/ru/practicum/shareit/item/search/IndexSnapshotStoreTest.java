@@ -0,0 +1,257 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearch.Document;
+import ru.practicum.shareit.item.search.InMemoryItemSearch.InvertedIndex;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndexSnapshotStoreTest {
+    private static final String ANALYSIS = "normalize,stop-words,stem";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void load_shouldRestoreSnapshotAndReplayDelta() throws IOException {
+        InvertedIndex available = new InvertedIndex();
+        InvertedIndex unavailable = new InvertedIndex();
+        available.put(1, 0, 10, false, List.of("garden", "hose"), List.of("hose", "for", "drill", "station"));
+        available.put(2, 0, 10, true, List.of("cordless", "drill"), List.of("two", "batter"));
+        unavailable.put(3, 0, 20, false, List.of("broken", "drill"), List.of());
+        try (IndexSnapshotStore store = new IndexSnapshotStore(directory, ANALYSIS)) {
+            store.write(available, unavailable);
+            store.appendPut(4, true, document(20, List.of("drill", "press")));
+            store.appendPut(3, true, document(20, List.of("repaired", "drill")));
+            store.appendRemove(1);
+        }
+
+        InvertedIndex restored = new InvertedIndex();
+        InvertedIndex restoredUnavailable = new InvertedIndex();
+        try (IndexSnapshotStore store = new IndexSnapshotStore(directory, ANALYSIS)) {
+            assertThat(store.load(restored, restoredUnavailable), equalTo(3));
+        }
+
+        available.put(4, 0, 20, false, List.of("drill", "press"), List.of());
+        unavailable.remove(3);
+        available.put(3, 0, 20, false, List.of("repaired", "drill"), List.of());
+        available.remove(1);
+        FacetCounts facets = new FacetCounts();
+        assertThat(restored.search(List.of("drill"), 0, 10, facets), containsInAnyOrder(2, 3, 4));
+        assertThat(restored.search(List.of("drill"), 0, 10), equalTo(available.search(List.of("drill"), 0, 10)));
+        assertThat(facets.withRequest(), equalTo(1));
+        assertThat(facets.topOwners(1), contains(new FacetCounts.OwnerCount(20, 2)));
+        assertThat(restored.search(List.of("batter"), 0, 10), contains(2));
+        assertThat(restored.search(List.of("hose"), 0, 10), empty());
+        assertThat(restoredUnavailable.documentCount(), equalTo(0));
+    }
+
+    @Test
+    void load_shouldStopAtTornRecordAndKeepAppending() throws IOException {
+        try (IndexSnapshotStore store = new IndexSnapshotStore(directory, ANALYSIS)) {
+            store.write(new InvertedIndex(), new InvertedIndex());
+            store.appendPut(1, true, document(10, List.of("ladder")));
+            store.appendPut(2, true, document(10, List.of("ladder")));
+        }
+        Path delta = directory.resolve(IndexSnapshotStore.DELTA);
+        long size = Files.size(delta);
+        try (var channel = Files.newByteChannel(delta, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (IndexSnapshotStore store = new IndexSnapshotStore(directory, ANALYSIS)) {
+            assertThat(store.load(new InvertedIndex(), new InvertedIndex()), equalTo(1));
+            store.appendPut(3, true, document(10, List.of("ladder")));
+        }
+
+        InvertedIndex restored = new InvertedIndex();
+        try (IndexSnapshotStore store = new IndexSnapshotStore(directory, ANALYSIS)) {
+            assertThat(store.load(restored, new InvertedIndex()), equalTo(2));
+        }
+        assertThat(restored.search(List.of("ladder"), 0, 10), contains(1, 3));
+    }
+
+    @Test
+    void load_shouldIgnoreSnapshotOfOtherAnalysisOrWithBadChecksum() throws IOException {
+        InvertedIndex available = new InvertedIndex();
+        available.put(1, 0, 10, false, List.of("ladder"), List.of());
+        try (IndexSnapshotStore store = new IndexSnapshotStore(directory, ANALYSIS)) {
+            store.write(available, new InvertedIndex());
+            store.appendRemove(1);
+        }
+
+        try (IndexSnapshotStore store = new IndexSnapshotStore(directory, "normalize")) {
+            assertThat(store.load(new InvertedIndex(), new InvertedIndex()), equalTo(-1));
+            assertThat(store.deltaSize(), equalTo(0L));
+        }
+
+        Path segment = directory.resolve(IndexSnapshotStore.SEGMENT);
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(segment, bytes);
+        try (IndexSnapshotStore store = new IndexSnapshotStore(directory, ANALYSIS)) {
+            assertThat(store.load(new InvertedIndex(), new InvertedIndex()), equalTo(-1));
+        }
+    }
+
+    @Test
+    void inMemoryItemSearch_shouldRestartFromSnapshotWithoutReadingItems() throws IOException {
+        User owner = User.builder().id(10).name("owner").email("owner@email.com").build();
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByIdGreaterThanOrderById(anyInt(), any(Limit.class)))
+                .thenReturn(List.of(item(1, "Cordless drill", true, owner), item(2, "Broken drill", false, owner)))
+                .thenReturn(List.of());
+        TextAnalyzer analyzer = new TextAnalyzer(List.of(ANALYSIS.split(",")));
+        InMemoryItemSearch first = new InMemoryItemSearch(itemRepository, analyzer, directory.toString(),
+                new SimpleMeterRegistry());
+        first.rebuild();
+        first.index(item(3, "Drill press", true, owner));
+        first.remove(1);
+        first.shutdown();
+
+        ItemRepository unchangedRepository = mock(ItemRepository.class);
+        ItemRepository.Fingerprint unchanged = fingerprint(2L, 3, 0L);
+        when(unchangedRepository.findFingerprint()).thenReturn(unchanged);
+        InMemoryItemSearch second = new InMemoryItemSearch(unchangedRepository, analyzer, directory.toString(),
+                new SimpleMeterRegistry());
+        second.rebuild();
+        second.index(item(4, "Hammer drill", true, owner));
+        second.shutdown();
+
+        FacetCounts facets = new FacetCounts();
+        assertThat(second.search("drills", PageRequest.of(0, 10), facets), contains(3, 4));
+        assertThat(facets.unavailable(), equalTo(1));
+        verify(unchangedRepository, never()).findAllByIdGreaterThanOrderById(anyInt(), any(Limit.class));
+    }
+
+    @Test
+    void inMemoryItemSearch_shouldIndexFromDatabaseWhenSnapshotDoesNotMatchIt() throws IOException {
+        User owner = User.builder().id(10).name("owner").email("owner@email.com").build();
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByIdGreaterThanOrderById(anyInt(), any(Limit.class)))
+                .thenReturn(List.of(item(1, "Cordless drill", true, owner), item(2, "Broken drill", true, owner)))
+                .thenReturn(List.of());
+        TextAnalyzer analyzer = new TextAnalyzer(List.of(ANALYSIS.split(",")));
+        InMemoryItemSearch first = new InMemoryItemSearch(itemRepository, analyzer, directory.toString(),
+                new SimpleMeterRegistry());
+        first.rebuild();
+        first.shutdown();
+
+        ItemRepository recreatedRepository = mock(ItemRepository.class);
+        ItemRepository.Fingerprint recreated = fingerprint(1L, 1, 0L);
+        when(recreatedRepository.findFingerprint()).thenReturn(recreated);
+        when(recreatedRepository.findAllByIdGreaterThanOrderById(anyInt(), any(Limit.class)))
+                .thenReturn(List.of(item(1, "Ladder", true, owner)))
+                .thenReturn(List.of());
+        InMemoryItemSearch second = new InMemoryItemSearch(recreatedRepository, analyzer, directory.toString(),
+                new SimpleMeterRegistry());
+        second.rebuild();
+        second.shutdown();
+
+        assertThat(second.search("drill", PageRequest.of(0, 10)), empty());
+        assertThat(second.search("ladder", PageRequest.of(0, 10)), contains(1));
+    }
+
+    @Test
+    void inMemoryItemSearch_shouldIndexFromDatabaseWhenItemWasUpdatedWithoutDelta() throws IOException {
+        User owner = User.builder().id(10).name("owner").email("owner@email.com").build();
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByIdGreaterThanOrderById(anyInt(), any(Limit.class)))
+                .thenReturn(List.of(item(1, "Cordless drill", true, owner)))
+                .thenReturn(List.of());
+        TextAnalyzer analyzer = new TextAnalyzer(List.of(ANALYSIS.split(",")));
+        InMemoryItemSearch first = new InMemoryItemSearch(itemRepository, analyzer, directory.toString(),
+                new SimpleMeterRegistry());
+        first.rebuild();
+        first.shutdown();
+
+        Item renamed = item(1, "Ladder", true, owner);
+        renamed.setVersion(1);
+        ItemRepository updatedRepository = mock(ItemRepository.class);
+        ItemRepository.Fingerprint updated = fingerprint(1L, 1, 1L);
+        when(updatedRepository.findFingerprint()).thenReturn(updated);
+        when(updatedRepository.findAllByIdGreaterThanOrderById(anyInt(), any(Limit.class)))
+                .thenReturn(List.of(renamed))
+                .thenReturn(List.of());
+        InMemoryItemSearch second = new InMemoryItemSearch(updatedRepository, analyzer, directory.toString(),
+                new SimpleMeterRegistry());
+        second.rebuild();
+        second.shutdown();
+
+        assertThat(second.search("drill", PageRequest.of(0, 10)), empty());
+        assertThat(second.search("ladder", PageRequest.of(0, 10)), contains(1));
+    }
+
+    @Test
+    void inMemoryItemSearch_shouldAppendToDeltaOnlyAfterCommit() throws IOException {
+        User owner = User.builder().id(10).name("owner").email("owner@email.com").build();
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByIdGreaterThanOrderById(anyInt(), any(Limit.class))).thenReturn(List.of());
+        InMemoryItemSearch search = new InMemoryItemSearch(itemRepository,
+                new TextAnalyzer(List.of(ANALYSIS.split(","))), directory.toString(), new SimpleMeterRegistry());
+        search.rebuild();
+        Path delta = directory.resolve(IndexSnapshotStore.DELTA);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            search.index(item(1, "Ladder", true, owner));
+            assertThat(Files.size(delta), equalTo(0L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(Files.size(delta), equalTo(0L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            search.index(item(2, "Drill", true, owner));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(Files.size(delta), greaterThan(0L));
+        search.shutdown();
+    }
+
+    private static Document document(int ownerId, List<String> nameTerms) {
+        return new Document(0, ownerId, false, nameTerms, List.of());
+    }
+
+    private static ItemRepository.Fingerprint fingerprint(long count, int maxId, long versionSum) {
+        ItemRepository.Fingerprint fingerprint = mock(ItemRepository.Fingerprint.class);
+        when(fingerprint.getCount()).thenReturn(count);
+        when(fingerprint.getMaxId()).thenReturn(maxId);
+        when(fingerprint.getVersionSum()).thenReturn(versionSum);
+        return fingerprint;
+    }
+
+    private static Item item(int id, String name, boolean available, User owner) {
+        return Item.builder().id(id).name(name).available(available).owner(owner).version(0).build();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class ItemNameSuggesterTest {
+    private ItemNameSuggester.Dictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new ItemNameSuggester.Dictionary();
+        dictionary.put(1, "Cordless drill");
+        dictionary.put(2, "Drill press");
+        dictionary.put(3, "cordless  DRILL");
+        dictionary.put(4, "Ladder");
+        dictionary.put(5, "Step-ladder");
+    }
+
+    @Test
+    void suggest_shouldMatchWordStartsAndRankByItemCount() {
+        assertThat(dictionary.suggest("dri", 10), contains("Cordless drill", "Drill press"));
+        assertThat(dictionary.suggest("  Cordless   dr", 10), contains("Cordless drill"));
+        assertThat(dictionary.suggest("lad", 10), contains("Ladder", "Step-ladder"));
+        assertThat(dictionary.suggest("drill ", 10), contains("Drill press"));
+        assertThat(dictionary.suggest("rill", 10), empty());
+        assertThat(dictionary.suggest("", 10), empty());
+        assertThat(dictionary.suggest("d", 1), contains("Cordless drill"));
+    }
+
+    @Test
+    void putAndRemove_shouldKeepNamesCurrent() {
+        dictionary.put(1, "Hammer drill");
+        dictionary.remove(3);
+        dictionary.remove(42);
+
+        assertThat(dictionary.suggest("cord", 10), empty());
+        assertThat(dictionary.suggest("drill", 10), contains("Drill press", "Hammer drill"));
+        assertThat(dictionary.nameCount(), equalTo(4));
+    }
+
+    @Test
+    void suggest_shouldReRankShortPrefixAfterNamesChange() {
+        assertThat(dictionary.suggest("dr", 10), contains("Cordless drill", "Drill press"));
+
+        dictionary.put(6, "Drill press");
+        dictionary.put(7, "Drill press");
+        assertThat(dictionary.suggest("dr", 10), contains("Drill press", "Cordless drill"));
+
+        dictionary.remove(6);
+        dictionary.remove(7);
+        dictionary.remove(2);
+        assertThat(dictionary.suggest("dr", 10), contains("Cordless drill"));
+        assertThat(dictionary.suggest("dr", 100), contains("Cordless drill"));
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+class ItemSearchCacheTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger loads = new AtomicInteger();
+    private ItemSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemSearchCache(2, 60, clock, new TextAnalyzer(TextAnalyzer.TokenFilter.values()), registry);
+    }
+
+    @Test
+    void get_shouldServeNormalizedRepeatsFromCache() {
+        search("Drill", 0, 10);
+        search("  drill ", 0, 10);
+        search("drill", 1, 10);
+
+        assertThat(loads.get(), equalTo(2));
+        assertThat(registry.get("items.search.cache.hit.ratio").gauge().value(), closeTo(1.0 / 3, 1e-9));
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedAndExpiredPages() {
+        search("drill", 0, 10);
+        search("ladder", 0, 10);
+        search("drill", 0, 10);
+        search("hose", 0, 10);
+        search("drill", 0, 10);
+        search("ladder", 0, 10);
+        assertThat(loads.get(), equalTo(4));
+
+        clock.millis += 60_000;
+        search("ladder", 0, 10);
+
+        assertThat(loads.get(), equalTo(5));
+        assertThat(registry.get("items.search.cache.evictions").tag("cause", "expired").counter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void evictMatching_shouldOnlyDropPagesWithWordsOfTheItem() {
+        search("cordless drill", 0, 10);
+        search("ladder", 0, 10);
+
+        cache.evictMatching("Drill press", "Bench drill for metal");
+        search("cordless drill", 0, 10);
+        search("ladder", 0, 10);
+        assertThat(loads.get(), equalTo(2));
+
+        cache.evictMatching("Cordless drill", null);
+        search("cordless drill", 0, 10);
+        search("ladder", 0, 10);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void evictMatching_shouldDropPagesOfOtherWordForms() {
+        search("дрели", 0, 10);
+        search("drill with batteries", 0, 10);
+
+        cache.evictMatching("Дрель", "Мощная дрель");
+        cache.evictMatching("Drill", "Comes with a battery");
+        search("дрели", 0, 10);
+        search("drill with batteries", 0, 10);
+
+        assertThat(loads.get(), equalTo(4));
+    }
+
+    private void search(String text, int from, int size) {
+        cache.get(text, from, size, () -> {
+            loads.incrementAndGet();
+            return List.of(ItemDto.builder().id(loads.get()).build());
+        });
+    }
+
+    private static class MutableClock extends Clock {
+        long millis;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TextAnalyzerTest {
+    private final TextAnalyzer analyzer = new TextAnalyzer(List.of("normalize", "stop-words", "stem"));
+
+    @Test
+    void analyze_shouldStemRussianCaseForms() {
+        for (String form : List.of("дрель", "дрели", "дрелью", "дрелей", "дрелями", "дрелях")) {
+            assertThat(form, analyzer.analyze(form), contains("дрел"));
+        }
+        assertThat(analyzer.analyze("Ударная лестница"), contains("ударн", "лестниц"));
+        assertThat(analyzer.analyze("ударной лестницей"), contains("ударн", "лестниц"));
+    }
+
+    @Test
+    void analyze_shouldStemEnglishPluralsAndKeepStemsAsPrefixes() {
+        assertThat(analyzer.analyze("Batteries battery boxes glasses shoes toys"),
+                contains("batter", "batter", "box", "glass", "shoe", "toy"));
+        assertThat(analyzer.analyze("bus dress key 2024"), contains("bus", "dress", "key", "2024"));
+    }
+
+    @Test
+    void analyze_shouldNormalizeAndDropStopWords() {
+        assertThat(analyzer.analyze("Дрель для бетона, with ＢＩＴＳ"), contains("дрел", "бетон", "bit"));
+        assertThat(analyzer.analyze("the and для"), empty());
+    }
+
+    @Test
+    void analyze_shouldDropPunctuationProducedByNormalization() {
+        assertThat(analyzer.analyze("⑴ ⒈ ½ drill"), contains("1", "1", "1", "2", "drill"));
+    }
+
+    @Test
+    void analyze_shouldOnlyApplyConfiguredFilters() {
+        assertThat(new TextAnalyzer(List.of("stem")).analyze("the drills"), contains("the", "drill"));
+        assertThat(new TextAnalyzer(List.of()).analyze("The Drills"), contains("the", "drills"));
+        assertThrows(IllegalArgumentException.class, () -> new TextAnalyzer(List.of("soundex")));
+    }
+}
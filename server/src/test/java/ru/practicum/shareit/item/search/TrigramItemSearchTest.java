@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.practicum.shareit.EmbeddedPostgresExtension;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class TrigramItemSearchTest {
+    @RegisterExtension
+    static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TrigramItemSearch search;
+
+    @BeforeAll
+    static void setUp() {
+        jdbcTemplate = postgres.getJdbcTemplate();
+        insertItem(1, "Garden hose", true);
+        insertItem(2, "Cordless drill", true);
+        insertItem(3, "Drill", true);
+        insertItem(4, "Ladder", true);
+        insertItem(5, "Broken drill", false);
+        search = new TrigramItemSearch(jdbcTemplate, new DataSourceTransactionManager(postgres.getDataSource()), 0.3);
+    }
+
+    @Test
+    void search_shouldTolerateTyposAndRankBySimilarity() {
+        assertThat(search.search("drel", PageRequest.of(0, 10)), equalTo(List.of(3, 2)));
+        assertThat(search.search("Ladr", PageRequest.of(0, 10)), equalTo(List.of(4)));
+        assertThat(search.search("drel", PageRequest.of(1, 1)), equalTo(List.of(2)));
+        assertThat(search.search("xyz", PageRequest.of(0, 10)), empty());
+    }
+
+    @Test
+    void search_shouldNotLeaveThresholdOnConnection() throws Exception {
+        SingleConnectionDataSource connection = new SingleConnectionDataSource(
+                postgres.getDataSource().getConnection(), true);
+        JdbcTemplate pinned = new JdbcTemplate(connection);
+        TrigramItemSearch pinnedSearch = new TrigramItemSearch(pinned, new DataSourceTransactionManager(connection), 0.9);
+
+        assertThat(pinnedSearch.search("drel", PageRequest.of(0, 10)), empty());
+        assertThat(pinned.queryForObject("SELECT current_setting('pg_trgm.word_similarity_threshold')", String.class),
+                equalTo("0.6"));
+        connection.destroy();
+    }
+
+    @Test
+    void search_shouldUseTrigramIndex() {
+        String plan = jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                ResultSet rs = statement.executeQuery(
+                        "EXPLAIN SELECT id FROM items WHERE available AND 'drel' <% lower(name)");
+                StringBuilder lines = new StringBuilder();
+                while (rs.next()) {
+                    lines.append(rs.getString(1)).append('\n');
+                }
+                return lines.toString();
+            }
+        });
+
+        assertThat(plan, containsString("idx_items_available_name_trgm"));
+    }
+
+    private static void insertItem(int id, String name, boolean available) {
+        jdbcTemplate.update("INSERT INTO items (id, user_id, name, description, available) VALUES (?, 1, ?, '', ?)",
+                id, name, available);
+    }
+}
@@ -10,16 +10,24 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.UtilTestDataClass;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.ItemBookingPointerSweeper;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Comment;
 import ru.practicum.shareit.item.NewCommentRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoCommentBooking;
+import ru.practicum.shareit.item.dto.ItemSearchFacets;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItem;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -33,6 +41,7 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
@@ -43,6 +52,9 @@ class ItemServiceImplTest {
     private final EntityManager em;
     private final ItemService service;
     private final UserService userService;
+    private final BookingService bookingService;
+    private final ItemRepository itemRepository;
+    private final ItemBookingPointerSweeper sweeper;
 
     private NewUserRequest newUserRequest;
     private NewItemRequest newItem;
@@ -251,6 +263,24 @@ class ItemServiceImplTest {
         assertThat(i.getOwner().getId(), equalTo(result.getFirst().getOwnerId()));
     }
 
+    @Test
+    void searchWithFacets() {
+        ItemDto scarf = service.create(newItem, userId);
+        service.create(newUnavailableItem, userId);
+
+        ItemSearchPage page = service.searchWithFacets("blue", 0, 5);
+
+        assertThat(page.getItems(), hasSize(1));
+        assertThat(page.getItems().getFirst().getId(), equalTo(scarf.getId()));
+        assertThat(page.getFacets().getAvailable(), equalTo(1));
+        assertThat(page.getFacets().getUnavailable(), equalTo(1));
+        assertThat(page.getFacets().getWithRequest(), equalTo(0));
+        assertThat(page.getFacets().getWithoutRequest(), equalTo(1));
+        assertThat(page.getFacets().getOwners(), equalTo(List.of(new ItemSearchFacets.OwnerBucket(userId, 1))));
+        assertThat(service.searchWithFacets("blue", 1, 5).getItems(), empty());
+        assertThat(service.searchWithFacets("blue", 1, 5).getFacets().getAvailable(), equalTo(1));
+    }
+
     @Test
     void delete() {
         ItemDto dto = service.create(newItem, userId);
@@ -258,4 +288,73 @@ class ItemServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> service.get(dto.getId(), userId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability_shouldReturnGapsBetweenBookings() {
+        newItem.setAvailable(true);
+        ItemDto dto = service.create(newItem, userId);
+        UserDto booker = userService.create(new NewUserRequest("booker", "booker@email.com"));
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        assertThat(service.getAvailability(dto.getId(), from, from.plusDays(10)), hasSize(1));
+
+        bookingService.createBookingRequest(booker.getId(), new NewBookingRequest(from.plusDays(1), from.plusDays(2), dto.getId()));
+        bookingService.createBookingRequest(booker.getId(), new NewBookingRequest(from.plusDays(2), from.plusDays(3), dto.getId()));
+        bookingService.createBookingRequest(booker.getId(), new NewBookingRequest(from.plusDays(5), from.plusDays(11), dto.getId()));
+
+        List<BookingPeriod> free = service.getAvailability(dto.getId(), from, from.plusDays(10));
+
+        assertThat(free, equalTo(List.of(
+                new BookingPeriod(from, from.plusDays(1)),
+                new BookingPeriod(from.plusDays(3), from.plusDays(5)))));
+    }
+
+    @Test
+    void getAvailability_FailWindowEndsBeforeStart() {
+        ItemDto dto = service.create(newItem, userId);
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThrows(BadRequestException.class, () -> service.getAvailability(dto.getId(), from, from));
+        assertThrows(NotFoundException.class, () -> service.getAvailability(999_999, from, from.plusDays(1)));
+    }
+
+    @Test
+    void get_shouldShowBookingPointersToOwnerOnly() {
+        newItem.setAvailable(true);
+        ItemDto dto = service.create(newItem, userId);
+        UserDto booker = userService.create(new NewUserRequest("booker", "booker@email.com"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingService.createBookingRequest(booker.getId(), new NewBookingRequest(start.plusDays(2), start.plusDays(3), dto.getId()));
+        BookingDto earlier = bookingService.createBookingRequest(booker.getId(),
+                new NewBookingRequest(start, start.plusDays(1), dto.getId()));
+        em.flush();
+        em.clear();
+
+        assertThat(service.get(dto.getId(), userId).getNextBooking(), equalTo(new BookingPeriod(start, start.plusDays(1))));
+        assertThat(service.get(dto.getId(), booker.getId()).getNextBooking(), nullValue());
+
+        bookingService.updateBookingStatus(earlier.getId(), userId, false);
+        em.flush();
+        em.clear();
+
+        assertThat(service.getUserItems(userId).get(0).getNextBooking(),
+                equalTo(new BookingPeriod(start.plusDays(2), start.plusDays(3))));
+    }
+
+    @Test
+    void sweep_shouldAdvanceStaleBookingPointers() {
+        ItemDto dto = service.create(newItem, userId);
+        UserDto booker = userService.create(new NewUserRequest("booker", "booker@email.com"));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        em.persist(new Booking(null, now.minusDays(2), now.minusDays(1), em.find(Item.class, dto.getId()),
+                Status.APPROVED, em.find(User.class, booker.getId()), null));
+        itemRepository.updateBookingPointers(dto.getId(), null, null, now.minusDays(2), now.minusDays(1), now.minusDays(2));
+
+        sweeper.sweep();
+        em.flush();
+        em.clear();
+
+        ItemDtoCommentBooking item = service.get(dto.getId(), userId);
+        assertThat(item.getLastBooking(), equalTo(new BookingPeriod(now.minusDays(2), now.minusDays(1))));
+        assertThat(item.getNextBooking(), nullValue());
+    }
+}